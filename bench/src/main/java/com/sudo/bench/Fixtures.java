@@ -0,0 +1,38 @@
+package com.sudo.bench;
+
+import com.sudo.PuzzleFormat;
+
+/** Fixed puzzle sets the benchmarks run on; every puzzle has exactly one solution. */
+public enum Fixtures {
+
+    /**
+     * Solvable with singles: the well-known 30-clue puzzle (51 holes), then two dug by
+     * SudokuGenerator to 36 holes.
+     */
+    EASY("53..7....6..195....98....6.8...6...34..8.3..17...2...6.6....28....419..5....8..79",
+            "...8..7.6.27..9....96475123.5..346..372.5.91..4...7358...58.23.5.924.8..283..6541",
+            ".46985...8.2.3..6.17.462..343.6..1295..7.18.66.82..54.28..167..96..7...2.5432...8"),
+
+    /** Well-known hard puzzles that need deep search. */
+    HARD("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+            "4.....8.5.3..........7......2.....6.....8.4......1.......6.3.7.5..2.....1.4......",
+            "..53.....8......2..7..1.5..4....53...1..7...6..32...8..6.5....9..4....3......97.."),
+
+    /** Minimal 17-clue puzzles, the worst case for a naive cell order. */
+    SEVENTEEN("000000010400000000020000000000050407008000300001090000300400200050100000000806000",
+            "000000012000035000000600070700000300000400800100000000000120000080000040050000600",
+            "000000012003600000000007000410020000000500300700000600280000040000300500000000000");
+
+    private final String[] lines;
+
+    Fixtures(String... lines) {
+        this.lines = lines;
+    }
+
+    /** Fresh copies of the set's grids. */
+    public int[][][] grids() {
+        int[][][] grids = new int[lines.length][][];
+        for (int i = 0; i < lines.length; i++) grids[i] = PuzzleFormat.parse(lines[i]);
+        return grids;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sudo.bench;
+
+import com.sudo.SudokuGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full-grid generation and digging. The generator is seeded so every run measures the same
+ * sequence of grids.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    private static final long SEED = 20240101L;
+    private static final int HOLES = 45;
+
+    private SudokuGenerator generator;
+    private int[][] full;
+    private final int[] cells = new int[81];
+
+    @Setup
+    public void setUp() {
+        generator = new SudokuGenerator(SEED);
+        full = generator.generateFull();
+    }
+
+    @Benchmark
+    public int[][] generateFull() {
+        return generator.generateFull();
+    }
+
+    @Benchmark
+    public int[] fillFull() {
+        generator.fillFull(cells);
+        return cells;
+    }
+
+    @Benchmark
+    public int[] fillPermuted() {
+        generator.fillPermuted(cells);
+        return cells;
+    }
+
+    @Benchmark
+    public int[][] dig() {
+        return generator.dig(full, HOLES);
+    }
+
+    @Benchmark
+    public int[][] digUnique() {
+        return generator.digUnique(full, HOLES);
+    }
+}
@@ -0,0 +1,79 @@
+package com.sudo.bench;
+
+import com.sudo.IterativeSolver;
+import com.sudo.ParallelSolver;
+import com.sudo.SudokuSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solves every puzzle of a fixture set per operation, once collecting the full step list the
+ * UI animates and once without steps. The backtracking engine uses MRV; row-major order can
+ * take minutes and gigabytes of steps on the 17-clue set. {@code solveParallel} solves each
+ * puzzle with every core on it through {@link ParallelSolver}, the same engine at the leaves.
+ * {@code iterativeSolve} runs the explicit-stack {@link IterativeSolver} with the same MRV order;
+ * it ignores {@code engine}, compare it with {@code solve} at BACKTRACKING.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Fixtures fixtures;
+
+    @Param({"BACKTRACKING", "BITMASK", "DLX"})
+    public SudokuSolver.Engine engine;
+
+    private int[][][] grids;
+    private SudokuSolver solver;
+    private ParallelSolver parallel;
+    private IterativeSolver iterative;
+
+    @Setup
+    public void setUp() {
+        grids = fixtures.grids();
+        solver = new SudokuSolver(engine);
+        solver.setHeuristic(SudokuSolver.Heuristic.MRV);
+        parallel = new ParallelSolver(() -> {
+            SudokuSolver s = new SudokuSolver(engine);
+            s.setHeuristic(SudokuSolver.Heuristic.MRV);
+            return s;
+        }, ForkJoinPool.commonPool(), 3);
+        iterative = new IterativeSolver();
+        iterative.setHeuristic(SudokuSolver.Heuristic.MRV);
+    }
+
+    @Benchmark
+    public void generateSteps(Blackhole bh) {
+        for (int[][] grid : grids) bh.consume(solver.generateSteps(grid));
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (int[][] grid : grids) bh.consume(solver.solve(grid));
+    }
+
+    @Benchmark
+    public void iterativeSolve(Blackhole bh) {
+        for (int[][] grid : grids) bh.consume(iterative.solve(grid));
+    }
+
+    @Benchmark
+    public void solveParallel(Blackhole bh) {
+        for (int[][] grid : grids) bh.consume(parallel.solve(grid));
+    }
+}
@@ -0,0 +1,131 @@
+package com.sudo.bench;
+
+import com.sudo.ConflictTracker;
+import com.sudo.HintEngine;
+import com.sudo.SudokuSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full-board duplicate recount on the givens and on the solutions of a fixture set, the baseline
+ * for the incremental tracker the UI uses: one edit that creates a conflict and one that removes it.
+ * {@code hint} fills one empty cell of the first puzzle, asks for the next hint and empties the
+ * cell again, so every call pays for a fresh deduction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    @Param({"EASY", "HARD", "SEVENTEEN"})
+    public Fixtures fixtures;
+
+    private int[][][] givens;
+    private int[][][] solved;
+    private final boolean[][] error = new boolean[9][9];
+    private final ConflictTracker tracker = new ConflictTracker();
+    private final int[] changed = new int[21];
+    private int editCell;
+    private int editValue;
+    private final HintEngine hints = new HintEngine();
+    private int hintCell;
+
+    @Setup
+    public void setUp() {
+        givens = fixtures.grids();
+        solved = new int[givens.length][][];
+        SudokuSolver solver = new SudokuSolver(SudokuSolver.Engine.BITMASK);
+        for (int i = 0; i < givens.length; i++) solved[i] = solver.solve(givens[i]);
+
+        // load the first solution, then edit one cell to its row neighbour's digit and back
+        int[][] grid = solved[0];
+        for (int i = 0; i < 81; i++) tracker.set(i, grid[i / 9][i % 9], changed);
+        editCell = 0;
+        editValue = grid[0][1];
+
+        for (int i = 0; i < 81; i++) hints.set(i, givens[0][i / 9][i % 9]);
+        hintCell = 0;
+        while (givens[0][hintCell / 9][hintCell % 9] != 0) hintCell++;
+    }
+
+    @Benchmark
+    public void givens(Blackhole bh) {
+        for (int[][] grid : givens) bh.consume(markConflicts(grid, error));
+    }
+
+    @Benchmark
+    public void solved(Blackhole bh) {
+        for (int[][] grid : solved) bh.consume(markConflicts(grid, error));
+    }
+
+    @Benchmark
+    public int trackerEdit() {
+        int original = solved[0][0][0];
+        int n = tracker.set(editCell, editValue, changed);
+        return n + tracker.set(editCell, original, changed);
+    }
+
+    @Benchmark
+    public HintEngine.Hint hint() {
+        hints.set(hintCell, solved[0][hintCell / 9][hintCell % 9]);
+        HintEngine.Hint hint = hints.next();
+        hints.set(hintCell, 0);
+        return hint;
+    }
+
+    /**
+     * Sets error[r][c] for every filled cell whose digit appears more than once in its row,
+     * column or box, recounting every unit. Returns true if any conflict was found.
+     */
+    private static boolean markConflicts(int[][] grid, boolean[][] error) {
+        boolean any = false;
+        int[] cnt = new int[10];
+
+        // rows
+        for (int r = 0; r < 9; r++) {
+            java.util.Arrays.fill(cnt, 0);
+            for (int c = 0; c < 9; c++) cnt[grid[r][c]]++;
+            for (int c = 0; c < 9; c++) {
+                int v = grid[r][c];
+                if (v != 0 && cnt[v] > 1) any = error[r][c] = true;
+            }
+        }
+
+        // columns
+        for (int c = 0; c < 9; c++) {
+            java.util.Arrays.fill(cnt, 0);
+            for (int r = 0; r < 9; r++) cnt[grid[r][c]]++;
+            for (int r = 0; r < 9; r++) {
+                int v = grid[r][c];
+                if (v != 0 && cnt[v] > 1) any = error[r][c] = true;
+            }
+        }
+
+        // boxes
+        for (int b = 0; b < 9; b++) {
+            int r0 = (b / 3) * 3, c0 = (b % 3) * 3;
+            java.util.Arrays.fill(cnt, 0);
+            for (int r = r0; r < r0 + 3; r++) {
+                for (int c = c0; c < c0 + 3; c++) cnt[grid[r][c]]++;
+            }
+            for (int r = r0; r < r0 + 3; r++) {
+                for (int c = c0; c < c0 + 3; c++) {
+                    int v = grid[r][c];
+                    if (v != 0 && cnt[v] > 1) any = error[r][c] = true;
+                }
+            }
+        }
+        return any;
+    }
+}
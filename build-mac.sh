@@ -60,6 +60,8 @@ module $MODULE_NAME {
     requires javafx.graphics;
     requires javafx.controls;
     requires javafx.fxml;
+    requires jdk.jfr;
+    requires jdk.management;
 
     opens com.sudo to javafx.graphics, javafx.fxml;
     exports com.sudo;
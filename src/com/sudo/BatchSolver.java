@@ -0,0 +1,120 @@
+package com.sudo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Solves many puzzles in parallel on a fork-join pool. Each worker thread gets its own solver
+ * instance (and therefore its own scratch buffers) and results are written to distinct slots,
+ * so workers share no mutable state.
+ */
+public class BatchSolver {
+
+    private final ThreadLocal<Solver> solvers;
+    private final ForkJoinPool pool;
+
+    /** Batch solver using {@link BitmaskSolver} on the common pool. */
+    public BatchSolver() {
+        this(BitmaskSolver::new);
+    }
+
+    public BatchSolver(Supplier<? extends Solver> factory) {
+        this(factory, ForkJoinPool.commonPool());
+    }
+
+    public BatchSolver(Supplier<? extends Solver> factory, ForkJoinPool pool) {
+        this.solvers = ThreadLocal.withInitial(factory);
+        this.pool = pool;
+    }
+
+    /** Solves every puzzle; {@code result[i]} belongs to {@code puzzles.get(i)}. */
+    public Result[] solveAll(List<int[][]> puzzles) {
+        Result[] results = new Result[puzzles.size()];
+        pool.submit(() -> IntStream.range(0, results.length).parallel()
+                .forEach(i -> results[i] = solve(puzzles.get(i)))).join();
+        return results;
+    }
+
+    /**
+     * Solves every puzzle of a corpus, one chunk per task, parsing into a reused grid per chunk.
+     * Only the totals are kept, so memory does not grow with the corpus size.
+     */
+    public Summary solveAll(PuzzleCorpus corpus) throws IOException {
+        List<PuzzleCorpus.Chunk> chunks = corpus.split(pool.getParallelism() * 4);
+        long start = System.nanoTime();
+        try {
+            Summary total = pool.submit(() -> chunks.parallelStream()
+                    .map(this::solveChunk)
+                    .reduce(new Summary(), Summary::add)).join();
+            total.nanos = System.nanoTime() - start;
+            return total;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Summary solveChunk(PuzzleCorpus.Chunk chunk) {
+        Solver solver = solvers.get();
+        Summary summary = new Summary();
+        SolveStats stats = new SolveStats();
+        int[][] grid = new int[9][9];
+        try {
+            PuzzleCorpus.Reader reader = chunk.open();
+            while (reader.next(grid)) {
+                summary.puzzles++;
+                if (solver.solve(grid, stats) == null) summary.unsolved++;
+                summary.candidateChecks += solver.getCandidateChecks();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        summary.nodes = stats.getNodes();
+        summary.backtracks = stats.getBacktracks();
+        return summary;
+    }
+
+    /** Solves one puzzle with the calling thread's solver. */
+    public Result solve(int[][] grid) {
+        SolveStats stats = new SolveStats();
+        int[][] solution = stats.solve(solvers.get(), grid);
+        return new Result(solution, stats);
+    }
+
+    /** Totals over a corpus; {@code nanos} is the wall time of the whole run. */
+    public static class Summary {
+        public long puzzles;
+        public long unsolved;
+        public long nodes;
+        public long backtracks;
+        public long candidateChecks;
+        public long nanos;
+
+        Summary add(Summary other) {
+            Summary s = new Summary();
+            s.puzzles = puzzles + other.puzzles;
+            s.unsolved = unsolved + other.unsolved;
+            s.nodes = nodes + other.nodes;
+            s.backtracks = backtracks + other.backtracks;
+            s.candidateChecks = candidateChecks + other.candidateChecks;
+            return s;
+        }
+
+        public double puzzlesPerSecond() {
+            return nanos > 0 ? puzzles * 1e9 / nanos : 0;
+        }
+    }
+
+    public static class Result {
+        public final int[][] solution;   // null when the puzzle has no solution
+        public final SolveStats stats;
+
+        public Result(int[][] solution, SolveStats stats) {
+            this.solution = solution;
+            this.stats = stats;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.sudo;
+
+/**
+ * Compact 9x9 board shared by the engines, the generator and the conflict tracker: one byte per
+ * cell in a flat row-major array (cell index i = r * 9 + c, 0 = empty), so copying or
+ * snapshotting a board is a single 81-byte array copy.
+ * <p>
+ * The static tables map a cell to its row, column and box and list the 27 units (rows 0-8,
+ * columns 9-17, boxes 18-26) and the 20 peers of every cell, so callers never recompute
+ * {@code (r / 3) * 3 + c / 3} or walk nested loops to find a cell's neighbours.
+ */
+public final class Board {
+
+    public static final int CELLS = 81;
+
+    // cell index -> row / column / box
+    static final int[] ROW = new int[CELLS];
+    static final int[] COL = new int[CELLS];
+    static final int[] BOX = new int[CELLS];
+    // 27 units (9 rows, 9 columns, 9 boxes), 9 cell indices each
+    static final int[][] UNITS = new int[27][9];
+    // the 3 units of each cell: row, 9 + column, 18 + box
+    static final int[][] UNITS_OF = new int[CELLS][3];
+    // the 20 cells sharing a unit with each cell
+    static final int[][] PEERS = new int[CELLS][20];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            int r = i / 9, c = i % 9, b = (r / 3) * 3 + c / 3;
+            ROW[i] = r;
+            COL[i] = c;
+            BOX[i] = b;
+            UNITS[r][c] = i;
+            UNITS[9 + c][r] = i;
+            UNITS[18 + b][(r % 3) * 3 + c % 3] = i;
+            UNITS_OF[i][0] = r;
+            UNITS_OF[i][1] = 9 + c;
+            UNITS_OF[i][2] = 18 + b;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int n = 0;
+            for (int j = 0; j < CELLS; j++) {
+                boolean peer = ROW[j] == ROW[i] || COL[j] == COL[i] || BOX[j] == BOX[i];
+                if (peer && j != i) PEERS[i][n++] = j;
+            }
+        }
+    }
+
+    private final byte[] cells;
+
+    /** Empty board. */
+    public Board() {
+        this(new byte[CELLS]);
+    }
+
+    private Board(byte[] cells) {
+        this.cells = cells;
+    }
+
+    /** Board holding a 9x9 grid (0 for empty cells). */
+    public static Board of(int[][] grid) {
+        byte[] cells = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) cells[i] = (byte) grid[i / 9][i % 9];
+        return new Board(cells);
+    }
+
+    /** Board restored from a {@link #snapshot()}. */
+    public static Board of(byte[] snapshot) {
+        return new Board(snapshot.clone());
+    }
+
+    public int get(int i) {
+        return cells[i];
+    }
+
+    public int get(int r, int c) {
+        return cells[r * 9 + c];
+    }
+
+    public void set(int i, int v) {
+        cells[i] = (byte) v;
+    }
+
+    public void set(int r, int c, int v) {
+        cells[r * 9 + c] = (byte) v;
+    }
+
+    public Board copy() {
+        return new Board(cells.clone());
+    }
+
+    public void copyFrom(Board other) {
+        System.arraycopy(other.cells, 0, cells, 0, CELLS);
+    }
+
+    /** The cells as a new 81-byte array. */
+    public byte[] snapshot() {
+        return cells.clone();
+    }
+
+    public void restore(byte[] snapshot) {
+        System.arraycopy(snapshot, 0, cells, 0, CELLS);
+    }
+
+    public int[][] toGrid() {
+        int[][] grid = new int[9][9];
+        for (int i = 0; i < CELLS; i++) grid[i / 9][i % 9] = cells[i];
+        return grid;
+    }
+
+    /** True if no peer of cell i holds v. */
+    public boolean canPlace(int i, int v) {
+        for (int p : PEERS[i]) if (cells[p] == v) return false;
+        return true;
+    }
+
+    /** Number of empty peers of cell i. */
+    public int emptyPeers(int i) {
+        int n = 0;
+        for (int p : PEERS[i]) if (cells[p] == 0) n++;
+        return n;
+    }
+}
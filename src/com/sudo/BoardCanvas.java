@@ -0,0 +1,131 @@
+package com.sudo;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Read-only board drawn on a single {@link Canvas}, used while a solve is animated instead of
+ * restyling 81 text fields. Cell changes only mark the cell dirty; {@link #flush()} repaints the
+ * dirty cells, so a frame that touches a few cells costs a few rectangle fills and image copies.
+ * Digit glyphs and colours are created once. The layout matches the text-field grid (cells of
+ * {@code cellSize} separated by {@code gap}) so the two can be swapped in place.
+ * Must be used on the FX application thread.
+ */
+public class BoardCanvas extends Canvas {
+
+    /** Background of a cell: empty/user-filled, given, placed by the solver, cleared by the solver. */
+    public enum Shade {EMPTY, GIVEN, PUT, CLEAR}
+
+    private static final Color[] FILLS = {
+            Color.WHITE, Color.web("#e6e6ff"), Color.web("#d1ffd1"), Color.web("#ffd1d1")
+    };
+    private static final Color BORDER = Color.web("#444444");
+    private static final Color TEXT = Color.web("#222222");
+
+    private final double cellSize;
+    private final double pitch;
+    private final GraphicsContext gc;
+    // glyphs[d] = pre-rendered digit d (1-9) on a transparent background
+    private final Image[] glyphs = new Image[10];
+
+    private final int[] values = new int[81];
+    private final Shade[] shades = new Shade[81];
+    private final boolean[] dirty = new boolean[81];
+    private final int[] dirtyCells = new int[81];
+    private int dirtyCount;
+
+    public BoardCanvas(double cellSize, double gap) {
+        super(9 * cellSize + 8 * gap, 9 * cellSize + 8 * gap);
+        this.cellSize = cellSize;
+        this.pitch = cellSize + gap;
+        this.gc = getGraphicsContext2D();
+        java.util.Arrays.fill(shades, Shade.EMPTY);
+
+        Canvas scratch = new Canvas(cellSize, cellSize);
+        GraphicsContext g = scratch.getGraphicsContext2D();
+        g.setFont(Font.font(20));
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        g.setFill(TEXT);
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        for (int d = 1; d <= 9; d++) {
+            g.clearRect(0, 0, cellSize, cellSize);
+            g.fillText(String.valueOf(d), cellSize / 2, cellSize / 2);
+            glyphs[d] = scratch.snapshot(params, null);
+        }
+    }
+
+    /** Shows a whole board (0 = empty) and repaints everything. */
+    public void load(int[][] board, boolean[][] given) {
+        for (int i = 0; i < 81; i++) {
+            int r = i / 9, c = i % 9;
+            values[i] = board[r][c];
+            shades[i] = given[r][c] ? Shade.GIVEN : Shade.EMPTY;
+            dirty[i] = false;
+        }
+        dirtyCount = 0;
+        gc.clearRect(0, 0, getWidth(), getHeight());
+        for (int i = 0; i < 81; i++) paint(i);
+    }
+
+    /** Applies a packed solver step (see {@link StepTrace}); given cells are never changed. */
+    public void apply(int step) {
+        int i = StepTrace.row(step) * 9 + StepTrace.col(step);
+        if (shades[i] == Shade.GIVEN) return;
+        if (StepTrace.isPut(step)) set(i, StepTrace.val(step), Shade.PUT);
+        else set(i, 0, Shade.CLEAR);
+    }
+
+    /** Repaints the cells changed since the last flush. */
+    public void flush() {
+        for (int k = 0; k < dirtyCount; k++) {
+            int i = dirtyCells[k];
+            dirty[i] = false;
+            paint(i);
+        }
+        dirtyCount = 0;
+    }
+
+    public int getValue(int r, int c) {
+        return values[r * 9 + c];
+    }
+
+    public Shade getShade(int r, int c) {
+        return shades[r * 9 + c];
+    }
+
+    private void set(int i, int value, Shade shade) {
+        if (values[i] == value && shades[i] == shade) return;
+        values[i] = value;
+        shades[i] = shade;
+        if (!dirty[i]) {
+            dirty[i] = true;
+            dirtyCells[dirtyCount++] = i;
+        }
+    }
+
+    private void paint(int i) {
+        int r = i / 9, c = i % 9;
+        double x = c * pitch, y = r * pitch;
+        gc.setFill(FILLS[shades[i].ordinal()]);
+        gc.fillRect(x, y, cellSize, cellSize);
+
+        // 1px border, 3px on the edges of a 3x3 box (same as the text-field style)
+        gc.setFill(BORDER);
+        double top = r % 3 == 0 ? 3 : 1, left = c % 3 == 0 ? 3 : 1;
+        double bottom = r == 8 ? 3 : 1, right = c == 8 ? 3 : 1;
+        gc.fillRect(x, y, cellSize, top);
+        gc.fillRect(x, y + cellSize - bottom, cellSize, bottom);
+        gc.fillRect(x, y, left, cellSize);
+        gc.fillRect(x + cellSize - right, y, right, cellSize);
+
+        if (values[i] != 0) gc.drawImage(glyphs[values[i]], x, y);
+    }
+}
@@ -0,0 +1,90 @@
+package com.sudo;
+
+/**
+ * Incremental duplicate tracking for a board being edited. Keeps a digit counter per row, column
+ * and box, so changing one cell touches only its three units, and a cell is in conflict when its
+ * digit is counted more than once in any of them. {@link #set(int, int, int[])} reports exactly
+ * the cells whose conflict state flipped (at most the cell and its 20 peers), so callers only
+ * restyle those.
+ * Not thread-safe.
+ */
+public class ConflictTracker {
+
+    private static final int[][] UNITS_OF = Board.UNITS_OF;
+    private static final int[][] PEERS = Board.PEERS;
+
+    private final Board values = new Board();
+    // counts[unit][digit]
+    private final int[][] counts = new int[27][10];
+    private final boolean[] conflict = new boolean[81];
+    private int conflictCount;
+
+    public ConflictTracker() {
+        clear();
+    }
+
+    /** Empties the board. */
+    public void clear() {
+        values.restore(new byte[Board.CELLS]);
+        for (int[] unit : counts) {
+            java.util.Arrays.fill(unit, 0);
+            unit[0] = 9;
+        }
+        java.util.Arrays.fill(conflict, false);
+        conflictCount = 0;
+    }
+
+    /**
+     * Sets a cell (0..80) to a digit, 0 for empty. The cells whose conflict state changed are
+     * written to {@code changed} (room for 21) and their number is returned.
+     */
+    public int set(int cell, int value, int[] changed) {
+        int old = values.get(cell);
+        if (old == value) return 0;
+        for (int u : UNITS_OF[cell]) {
+            counts[u][old]--;
+            counts[u][value]++;
+        }
+        values.set(cell, value);
+
+        int n = 0;
+        if (refresh(cell)) changed[n++] = cell;
+        // only peers holding the old or the new digit can change state
+        for (int p : PEERS[cell]) {
+            int v = values.get(p);
+            if (v != 0 && (v == old || v == value) && refresh(p)) changed[n++] = p;
+        }
+        return n;
+    }
+
+    public int get(int cell) {
+        return values.get(cell);
+    }
+
+    /** Copy of the tracked board. */
+    public Board board() {
+        return values.copy();
+    }
+
+    public boolean isConflict(int cell) {
+        return conflict[cell];
+    }
+
+    /** True if any cell is in conflict. */
+    public boolean hasConflicts() {
+        return conflictCount > 0;
+    }
+
+    // Recomputes one cell's state; true if it changed
+    private boolean refresh(int cell) {
+        int v = values.get(cell);
+        boolean now = false;
+        if (v != 0) {
+            for (int u : UNITS_OF[cell]) now |= counts[u][v] > 1;
+        }
+        if (now == conflict[cell]) return false;
+        conflict[cell] = now;
+        conflictCount += now ? 1 : -1;
+        return true;
+    }
+}
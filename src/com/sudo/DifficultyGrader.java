@@ -0,0 +1,238 @@
+package com.sudo;
+
+/**
+ * Grades a puzzle by solving it with a ladder of human techniques (see {@link Technique}).
+ * Candidates are kept as 9-bit masks per cell; after every step that makes progress the ladder
+ * restarts from the easiest technique, and the hardest one that was needed is the rating.
+ * Instances keep scratch state and are not thread-safe.
+ */
+public class DifficultyGrader {
+
+    private static final int[][] UNITS = Board.UNITS;
+    private static final int[][] PEERS = Board.PEERS;
+
+    private final int[] cells = new int[81];
+    private final int[] cand = new int[81];
+    private int empty;
+    private boolean broken;
+    private int placed = -1;   // cell filled by the last step(), -1 if it only eliminated
+
+    /** Rating of the puzzle, or null when its givens conflict or logic reaches a contradiction. */
+    public Technique grade(int[][] puzzle) {
+        load(puzzle);
+        Technique hardest = Technique.NAKED_SINGLE;
+        while (empty > 0 && !broken) {
+            Technique used = step();
+            if (used == null) return Technique.GUESS;
+            if (used.compareTo(hardest) > 0) hardest = used;
+        }
+        return broken ? null : hardest;
+    }
+
+    void load(int[][] puzzle) {
+        empty = 81;
+        broken = false;
+        java.util.Arrays.fill(cand, 0x1FF);
+        java.util.Arrays.fill(cells, 0);
+        for (int i = 0; i < 81; i++) {
+            int v = puzzle[i / 9][i % 9];
+            if (v == 0) continue;
+            if ((cand[i] & (1 << (v - 1))) == 0) broken = true;
+            place(i, v);
+        }
+    }
+
+    /** Starts from a board whose candidates are already known, e.g. kept up to date by {@link HintEngine}. */
+    void load(Board board, int[] candidates) {
+        empty = 0;
+        broken = false;
+        for (int i = 0; i < 81; i++) {
+            cells[i] = board.get(i);
+            cand[i] = cells[i] == 0 ? candidates[i] : 0;
+            if (cells[i] != 0) continue;
+            empty++;
+            if (cand[i] == 0) broken = true;
+        }
+    }
+
+    /** True when the givens conflict or logic reached a contradiction. */
+    boolean isBroken() {
+        return broken;
+    }
+
+    /** Cell filled by the last {@link #step()}, or -1. */
+    int placedCell() {
+        return placed;
+    }
+
+    int valueAt(int i) {
+        return cells[i];
+    }
+
+    /** Applies the easiest technique that makes progress; null when none does. */
+    Technique step() {
+        placed = -1;
+        if (nakedSingle()) return Technique.NAKED_SINGLE;
+        if (hiddenSingle()) return Technique.HIDDEN_SINGLE;
+        if (nakedPair()) return Technique.NAKED_PAIR;
+        if (pointing()) return Technique.POINTING;
+        if (hiddenPair()) return Technique.HIDDEN_PAIR;
+        if (xWing()) return Technique.X_WING;
+        return null;
+    }
+
+    private void place(int i, int v) {
+        int bit = 1 << (v - 1);
+        cells[i] = v;
+        cand[i] = 0;
+        empty--;
+        placed = i;
+        for (int p : PEERS[i]) cand[p] &= ~bit;
+    }
+
+    // Removes bits from a cell's candidates; true if anything was removed
+    private boolean eliminate(int i, int bits) {
+        if (cells[i] != 0 || (cand[i] & bits) == 0) return false;
+        cand[i] &= ~bits;
+        if (cand[i] == 0) broken = true;
+        return true;
+    }
+
+    private boolean nakedSingle() {
+        for (int i = 0; i < 81; i++) {
+            if (cells[i] != 0) continue;
+            if (cand[i] == 0) {
+                broken = true;
+                return false;
+            }
+            if (Integer.bitCount(cand[i]) == 1) {
+                place(i, Integer.numberOfTrailingZeros(cand[i]) + 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSingle() {
+        for (int[] unit : UNITS) {
+            for (int d = 0; d < 9; d++) {
+                int bit = 1 << d, where = -1, n = 0;
+                for (int i : unit) {
+                    if ((cand[i] & bit) != 0) {
+                        where = i;
+                        n++;
+                    }
+                }
+                if (n == 1) {
+                    place(where, d + 1);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedPair() {
+        for (int[] unit : UNITS) {
+            for (int a = 0; a < 9; a++) {
+                int pair = cand[unit[a]];
+                if (Integer.bitCount(pair) != 2) continue;
+                for (int b = a + 1; b < 9; b++) {
+                    if (cand[unit[b]] != pair) continue;
+                    boolean progress = false;
+                    for (int k = 0; k < 9; k++) {
+                        if (k != a && k != b) progress |= eliminate(unit[k], pair);
+                    }
+                    if (progress) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Locked candidates: a digit confined to one line inside a box (pointing), or to one box
+    // inside a line (claiming), can be removed from the rest of that line or box
+    private boolean pointing() {
+        for (int box = 18; box < 27; box++) {
+            for (int line = 0; line < 18; line++) {
+                int shared = 0, boxOnly = 0, lineOnly = 0;
+                for (int i : UNITS[box]) {
+                    if (inUnit(line, i)) shared |= cand[i];
+                    else boxOnly |= cand[i];
+                }
+                for (int i : UNITS[line]) {
+                    if (!inUnit(box, i)) lineOnly |= cand[i];
+                }
+                int pointing = shared & ~boxOnly & lineOnly;
+                int claiming = shared & ~lineOnly & boxOnly;
+                if (pointing != 0) {
+                    for (int i : UNITS[line]) if (!inUnit(box, i)) eliminate(i, pointing);
+                    return true;
+                }
+                if (claiming != 0) {
+                    for (int i : UNITS[box]) if (!inUnit(line, i)) eliminate(i, claiming);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenPair() {
+        for (int[] unit : UNITS) {
+            // positions (bit k = unit[k]) where each digit can still go
+            int[] where = new int[9];
+            for (int k = 0; k < 9; k++) {
+                for (int m = cand[unit[k]]; m != 0; m &= m - 1) where[Integer.numberOfTrailingZeros(m)] |= 1 << k;
+            }
+            for (int d1 = 0; d1 < 9; d1++) {
+                if (Integer.bitCount(where[d1]) != 2) continue;
+                for (int d2 = d1 + 1; d2 < 9; d2++) {
+                    if (where[d2] != where[d1]) continue;
+                    int keep = (1 << d1) | (1 << d2);
+                    boolean progress = false;
+                    for (int m = where[d1]; m != 0; m &= m - 1) {
+                        progress |= eliminate(unit[Integer.numberOfTrailingZeros(m)], ~keep & 0x1FF);
+                    }
+                    if (progress) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean xWing() {
+        for (int d = 0; d < 9; d++) {
+            int bit = 1 << d;
+            // base 0: rows as base lines, columns as cover lines; base 9: the other way round
+            for (int base = 0; base <= 9; base += 9) {
+                int cover = 9 - base;
+                int[] pos = new int[9];
+                for (int line = 0; line < 9; line++) {
+                    int[] unit = UNITS[base + line];
+                    for (int k = 0; k < 9; k++) if ((cand[unit[k]] & bit) != 0) pos[line] |= 1 << k;
+                }
+                for (int a = 0; a < 9; a++) {
+                    if (Integer.bitCount(pos[a]) != 2) continue;
+                    for (int b = a + 1; b < 9; b++) {
+                        if (pos[b] != pos[a]) continue;
+                        boolean progress = false;
+                        for (int m = pos[a]; m != 0; m &= m - 1) {
+                            int[] coverUnit = UNITS[cover + Integer.numberOfTrailingZeros(m)];
+                            for (int k = 0; k < 9; k++) {
+                                if (k != a && k != b) progress |= eliminate(coverUnit[k], bit);
+                            }
+                        }
+                        if (progress) return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean inUnit(int unit, int i) {
+        int[] units = Board.UNITS_OF[i];
+        return units[0] == unit || units[1] == unit || units[2] == unit;
+    }
+}
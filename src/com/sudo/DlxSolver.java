@@ -0,0 +1,219 @@
+package com.sudo;
+
+/**
+ * Dancing Links (Algorithm X) exact-cover engine.
+ * <p>
+ * The 729-row x 324-column sudoku matrix is built once into flat int arrays when the instance is
+ * created. Givens are applied by covering their rows and every cover is undone before a call
+ * returns, so the same node pool and scratch arrays are reused for any number of puzzles; only
+ * the grid returned by {@link #solve} is allocated.
+ * Choosing a row is recorded as a PUT and abandoning it as a CLEAR.
+ */
+public class DlxSolver implements Solver {
+
+    private static final int COLUMNS = 324;
+    private static final int ROWS = 729;
+    private static final int ROOT = 0;
+
+    // node links; 0 = root, 1..324 = column headers, then 4 nodes per matrix row
+    private final int[] left, right, up, down, column, rowOf;
+    private final int[] size = new int[COLUMNS + 1];
+    // first node of each matrix row (row id = cell * 9 + digit - 1)
+    private final int[] rowStart = new int[ROWS];
+
+    private final int[] chosen = new int[81];
+    private final int[] solution = new int[81];
+    // scratch state of run(): digits used per unit and the matrix rows of the givens
+    private final int[] rowUsed = new int[9];
+    private final int[] colUsed = new int[9];
+    private final int[] boxUsed = new int[9];
+    private final int[] givens = new int[81];
+    private int limit;
+    private int found;
+    private long checks;
+    private StepSink sink;
+    private java.util.function.BooleanSupplier stop;
+
+    public DlxSolver() {
+        int nodes = 1 + COLUMNS + ROWS * 4;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        rowOf = new int[nodes];
+
+        for (int c = 0; c <= COLUMNS; c++) {
+            left[c] = c == 0 ? COLUMNS : c - 1;
+            right[c] = c == COLUMNS ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        int n = COLUMNS + 1;
+        for (int cell = 0; cell < 81; cell++) {
+            int r = Board.ROW[cell], c = Board.COL[cell], b = Board.BOX[cell];
+            for (int d = 0; d < 9; d++) {
+                int row = cell * 9 + d;
+                int[] cols = {1 + cell, 1 + 81 + r * 9 + d, 1 + 162 + c * 9 + d, 1 + 243 + b * 9 + d};
+                rowStart[row] = n;
+                for (int k = 0; k < 4; k++) {
+                    int node = n + k, col = cols[k];
+                    column[node] = col;
+                    rowOf[node] = row;
+                    left[node] = n + (k + 3) % 4;
+                    right[node] = n + (k + 1) % 4;
+                    up[node] = up[col];
+                    down[node] = col;
+                    down[up[col]] = node;
+                    up[col] = node;
+                    size[col]++;
+                }
+                n += 4;
+            }
+        }
+    }
+
+    @Override
+    public int[][] solve(int[][] grid, StepSink sink) {
+        this.sink = sink;
+        try {
+            if (run(grid, 1) == 0) return null;
+        } finally {
+            this.sink = null;
+        }
+        int[][] out = new int[9][9];
+        for (int i = 0; i < 81; i++) out[i / 9][i % 9] = solution[i];
+        return out;
+    }
+
+    @Override
+    public int countSolutions(int[][] grid, int limit) {
+        return run(grid, limit);
+    }
+
+    private int run(int[][] grid, int limit) {
+        this.limit = limit;
+        this.found = 0;
+        this.checks = 0;
+
+        // reject out-of-range and conflicting givens up front: covering a column twice, or one
+        // that does not exist, would corrupt the links
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        int givenCount = 0;
+        for (int i = 0; i < 81; i++) {
+            int v = grid[i / 9][i % 9];
+            if (v == 0) continue;
+            if (v < 0 || v > 9) return 0;
+            int r = Board.ROW[i], c = Board.COL[i], b = Board.BOX[i], bit = 1 << v;
+            if (((rowUsed[r] | colUsed[c] | boxUsed[b]) & bit) != 0) return 0;
+            rowUsed[r] |= bit;
+            colUsed[c] |= bit;
+            boxUsed[b] |= bit;
+            solution[i] = v;
+            givens[givenCount++] = i * 9 + v - 1;
+        }
+
+        for (int g = 0; g < givenCount; g++) select(rowStart[givens[g]]);
+        try {
+            search(0);
+        } finally {
+            // a sink may throw mid-search; the matrix is reused, so always restore it
+            for (int g = givenCount - 1; g >= 0; g--) deselect(rowStart[givens[g]]);
+        }
+        return found;
+    }
+
+    /** Returns true once the search should stop; all covers are undone on the way back either way, also when the sink throws. */
+    private boolean search(int depth) {
+        if (right[ROOT] == ROOT) {
+            found++;
+            for (int k = 0; k < depth; k++) {
+                int row = rowOf[chosen[k]];
+                solution[row / 9] = row % 9 + 1;
+            }
+            return found >= limit;
+        }
+
+        int col = right[ROOT];
+        for (int c = right[col]; c != ROOT && size[col] > 1; c = right[c]) {
+            checks++;
+            if (size[c] < size[col]) col = c;
+        }
+        if (size[col] == 0) return false;
+        if (stop != null && stop.getAsBoolean()) return true;
+
+        boolean done = false;
+        cover(col);
+        try {
+            for (int node = down[col]; node != col && !done; node = down[node]) {
+                chosen[depth] = node;
+                int row = rowOf[node];
+                if (sink != null) sink.accept(StepTrace.put(row / 81, (row / 9) % 9, row % 9 + 1));
+                for (int j = right[node]; j != node; j = right[j]) cover(column[j]);
+                try {
+                    done = search(depth + 1);
+                } finally {
+                    for (int j = left[node]; j != node; j = left[j]) uncover(column[j]);
+                }
+                if (!done && sink != null) sink.accept(StepTrace.clear(row / 81, (row / 9) % 9));
+            }
+        } finally {
+            uncover(col);
+        }
+        return done;
+    }
+
+    @Override
+    public long getCandidateChecks() {
+        return checks;
+    }
+
+    @Override
+    public void setStopCondition(java.util.function.BooleanSupplier stop) {
+        this.stop = stop;
+    }
+
+    private void select(int node) {
+        int j = node;
+        do {
+            cover(column[j]);
+            j = right[j];
+        } while (j != node);
+    }
+
+    private void deselect(int node) {
+        int j = left[node];
+        while (true) {
+            uncover(column[j]);
+            if (j == node) break;
+            j = left[j];
+        }
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
@@ -0,0 +1,130 @@
+package com.sudo;
+
+/**
+ * Full grids and unique puzzles for any box size supported by {@link GeneralSolver} (4x4 up to
+ * 25x25), mainly as stress workloads for the engines. Like {@link SudokuGenerator} all
+ * randomness comes from one seedable {@link java.util.SplittableRandom}. Instances keep
+ * scratch state and are not thread-safe.
+ */
+public class GeneralGenerator {
+
+    // Randomized fills that run into a long dead end are restarted instead of searched out
+    private static final long FILL_NODE_LIMIT = 20_000;
+    private static final int FILL_ATTEMPTS = 20;
+    // A uniqueness check that needs more branching than this counts as "not unique"
+    private static final long COUNT_NODE_LIMIT = 5_000;
+
+    private final int box;
+    private final int size;
+    private final GeneralSolver solver;
+    private java.util.SplittableRandom rnd;
+
+    /** Generator with an unpredictable seed. */
+    public GeneralGenerator(int boxSize) {
+        solver = new GeneralSolver(boxSize);
+        box = boxSize;
+        size = boxSize * boxSize;
+        rnd = new java.util.SplittableRandom();
+    }
+
+    /** Generator whose output is fully determined by the seed. */
+    public GeneralGenerator(int boxSize, long seed) {
+        this(boxSize);
+        setSeed(seed);
+    }
+
+    public void setSeed(long seed) {
+        rnd = new java.util.SplittableRandom(seed);
+    }
+
+    public int getBoxSize() {
+        return box;
+    }
+
+    /**
+     * Random full grid: the solver fills an empty board branching in random order, restarting
+     * when an attempt gets stuck. If every attempt gets stuck (not seen in practice) a shuffled
+     * pattern grid is returned instead.
+     */
+    public int[][] generateFull() {
+        int[][] empty = new int[size][size];
+        solver.setRandom(rnd);
+        solver.setNodeLimit(FILL_NODE_LIMIT);
+        try {
+            for (int attempt = 0; attempt < FILL_ATTEMPTS; attempt++) {
+                int[][] full = solver.solve(empty, null);
+                if (full != null) return full;
+            }
+        } finally {
+            solver.setRandom(null);
+            solver.setNodeLimit(Long.MAX_VALUE);
+        }
+        return shuffledPattern();
+    }
+
+    /**
+     * Copy of a full grid with up to removeCount cells emptied while keeping the solution unique,
+     * in one pass over the cells in random order (see {@link SudokuGenerator#digUnique}). Removals
+     * whose uniqueness check gets too expensive are undone, so large boards may end with fewer holes.
+     */
+    public int[][] digUnique(int[][] full, int removeCount) {
+        int cellCount = size * size;
+        int[][] puzzle = new int[size][];
+        for (int r = 0; r < size; r++) puzzle[r] = full[r].clone();
+        int[] order = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) order[i] = i;
+        shuffle(order, 0, cellCount);
+
+        solver.setNodeLimit(COUNT_NODE_LIMIT);
+        try {
+            int holes = 0;
+            for (int k = 0; k < cellCount && holes < removeCount; k++) {
+                int r = order[k] / size, c = order[k] % size, v = puzzle[r][c];
+                puzzle[r][c] = 0;
+                if (solver.countSolutions(puzzle, 2) == 1 && !solver.wasAborted()) holes++;
+                else puzzle[r][c] = v;
+            }
+        } finally {
+            solver.setNodeLimit(Long.MAX_VALUE);
+        }
+        return puzzle;
+    }
+
+    // Pattern grid (r, c) -> (box * (r % box) + r / box + c) % size + 1 with digits relabelled
+    // and rows/columns shuffled within their bands and stacks
+    private int[][] shuffledPattern() {
+        int[] digits = new int[size];
+        for (int i = 0; i < size; i++) digits[i] = i + 1;
+        shuffle(digits, 0, size);
+        int[] rows = lineMap(), cols = lineMap();
+        int[][] grid = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int pr = rows[r], pc = cols[c];
+                grid[r][c] = digits[(box * (pr % box) + pr / box + pc) % size];
+            }
+        }
+        return grid;
+    }
+
+    private int[] lineMap() {
+        int[] bands = new int[box];
+        for (int b = 0; b < box; b++) bands[b] = b;
+        shuffle(bands, 0, box);
+        int[] map = new int[size];
+        for (int b = 0; b < box; b++) {
+            for (int k = 0; k < box; k++) map[b * box + k] = bands[b] * box + k;
+            shuffle(map, b * box, box);
+        }
+        return map;
+    }
+
+    private void shuffle(int[] a, int from, int len) {
+        for (int i = len - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = a[from + i];
+            a[from + i] = a[from + j];
+            a[from + j] = t;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.sudo;
+
+import java.util.Arrays;
+
+/**
+ * Constraint-propagation engine for square boards of any box size from 2 (4x4) to 5 (25x25):
+ * one used-digit mask per row, column and box (an int, since a board has at most 25 digits),
+ * updated incrementally on every PUT/CLEAR, naked and hidden single propagation, and branching
+ * on the cell with the fewest candidates. {@link BitmaskSolver} is this engine with box size 3.
+ * Grids are size x size arrays with 0 for empty cells and digits 1..size; steps use the usual
+ * {@link StepTrace} packing.
+ * <p>
+ * For the generator the search can branch in random order and give up after a number of
+ * branching nodes; see {@link GeneralGenerator}. Instances keep scratch state and are not
+ * thread-safe.
+ */
+public class GeneralSolver implements Solver {
+
+    public static final int MIN_BOX = 2;
+    public static final int MAX_BOX = 5;
+
+    private final int box;
+    private final int size;
+    private final int cellCount;
+    private final int all;
+
+    // cell index -> row / column / box, and 3 * size units of size cells each
+    private final int[] rowOf, colOf, boxOf;
+    private final int[][] units;
+
+    private final int[] cells;
+    private final int[] rowUsed, colUsed, boxUsed;
+    private final int[] trail;
+    private int trailSize;
+    private StepSink sink;
+    private int limit;
+    private int found;
+    private long checks;
+
+    private java.util.SplittableRandom random;
+    private long nodeLimit = Long.MAX_VALUE;
+    private long nodes;
+    private java.util.function.BooleanSupplier stop;
+    private boolean aborted;
+
+    public GeneralSolver(int boxSize) {
+        if (boxSize < MIN_BOX || boxSize > MAX_BOX) {
+            throw new IllegalArgumentException("box size must be " + MIN_BOX + ".." + MAX_BOX + ": " + boxSize);
+        }
+        box = boxSize;
+        size = boxSize * boxSize;
+        cellCount = size * size;
+        all = (1 << size) - 1;
+
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        boxOf = new int[cellCount];
+        units = new int[3 * size][size];
+        for (int i = 0; i < cellCount; i++) {
+            int r = i / size, c = i % size, b = (r / box) * box + c / box;
+            rowOf[i] = r;
+            colOf[i] = c;
+            boxOf[i] = b;
+            units[r][c] = i;
+            units[size + c][r] = i;
+            units[2 * size + b][(r % box) * box + c % box] = i;
+        }
+
+        cells = new int[cellCount];
+        rowUsed = new int[size];
+        colUsed = new int[size];
+        boxUsed = new int[size];
+        trail = new int[cellCount];
+    }
+
+    public int getBoxSize() {
+        return box;
+    }
+
+    /** Board side length (box size squared). */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int[][] solve(int[][] grid, StepSink sink) {
+        if (!load(grid, 1)) return null;
+        this.sink = sink;
+        try {
+            if (!search() || aborted) return null;
+        } finally {
+            this.sink = null;
+        }
+        int[][] out = new int[size][size];
+        for (int i = 0; i < cellCount; i++) out[i / size][i % size] = cells[i];
+        return out;
+    }
+
+    @Override
+    public int countSolutions(int[][] grid, int limit) {
+        if (!load(grid, limit)) return 0;
+        search();
+        return found;
+    }
+
+    /** 9x9 only: same as {@link #countSolutions(int[][], int)} straight from a {@link Board}. */
+    int countSolutions(Board board, int limit) {
+        if (size != 9) throw new IllegalStateException("Board is 9x9, solver is " + size + "x" + size);
+        reset(limit);
+        for (int i = 0; i < cellCount; i++) {
+            if (!give(i, board.get(i))) return 0;
+        }
+        search();
+        return found;
+    }
+
+    @Override
+    public long getCandidateChecks() {
+        return checks;
+    }
+
+    /** Branch on candidate digits in random order (null = ascending order). */
+    void setRandom(java.util.SplittableRandom random) {
+        this.random = random;
+    }
+
+    /** Stop a search after this many branching nodes; see {@link #wasAborted()}. */
+    void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    @Override
+    public void setStopCondition(java.util.function.BooleanSupplier stop) {
+        this.stop = stop;
+    }
+
+    /** True if the last solve or count hit the node limit or was stopped, so its answer is not conclusive. */
+    boolean wasAborted() {
+        return aborted;
+    }
+
+    /** Copies the givens into the masks; false if the grid has the wrong shape or two givens conflict. */
+    private boolean load(int[][] grid, int limit) {
+        reset(limit);
+        if (grid.length != size) return false;
+        for (int i = 0; i < cellCount; i++) {
+            int[] row = grid[i / size];
+            if (row.length != size || !give(i, row[i % size])) return false;
+        }
+        return true;
+    }
+
+    private void reset(int limit) {
+        this.limit = limit;
+        found = 0;
+        checks = 0;
+        nodes = 0;
+        aborted = false;
+        Arrays.fill(cells, 0);
+        Arrays.fill(rowUsed, 0);
+        Arrays.fill(colUsed, 0);
+        Arrays.fill(boxUsed, 0);
+        trailSize = 0;
+    }
+
+    // Enters a given (0 = none); false if it is out of range or conflicts with an earlier one
+    private boolean give(int i, int v) {
+        if (v == 0) return true;
+        if (v < 0 || v > size) return false;
+        int bit = 1 << (v - 1);
+        if (((rowUsed[rowOf[i]] | colUsed[colOf[i]] | boxUsed[boxOf[i]]) & bit) != 0) return false;
+        cells[i] = v;
+        rowUsed[rowOf[i]] |= bit;
+        colUsed[colOf[i]] |= bit;
+        boxUsed[boxOf[i]] |= bit;
+        return true;
+    }
+
+    /** Returns true once {@code limit} solutions were found, the node limit was hit or the search was stopped. */
+    private boolean search() {
+        int mark = trailSize;
+        if (!propagate()) {
+            undo(mark);
+            return false;
+        }
+        int best = -1, bestCount = size + 1;
+        for (int i = 0; i < cellCount && bestCount > 2; i++) {
+            if (cells[i] != 0) continue;
+            int n = Integer.bitCount(candidates(i));
+            if (n < bestCount) {
+                best = i;
+                bestCount = n;
+            }
+        }
+        if (best < 0) return ++found >= limit;
+        if (++nodes > nodeLimit || stop != null && stop.getAsBoolean()) {
+            aborted = true;
+            return true;
+        }
+
+        int inner = trailSize;
+        int cand = candidates(best);
+        while (cand != 0) {
+            int bit = random == null ? cand & -cand : randomBit(cand);
+            cand &= ~bit;
+            place(best, Integer.numberOfTrailingZeros(bit) + 1);
+            if (search()) return true;
+            undo(inner);
+        }
+        undo(mark);
+        return false;
+    }
+
+    /** Fills naked and hidden singles until nothing changes; false on a contradiction. */
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < cellCount; i++) {
+                if (cells[i] != 0) continue;
+                int cand = candidates(i);
+                if (cand == 0) return false;
+                if ((cand & (cand - 1)) == 0) {
+                    place(i, Integer.numberOfTrailingZeros(cand) + 1);
+                    changed = true;
+                }
+            }
+            for (int[] unit : units) {
+                int once = 0, twice = 0, used = 0;
+                for (int i : unit) {
+                    if (cells[i] != 0) {
+                        used |= 1 << (cells[i] - 1);
+                        continue;
+                    }
+                    int cand = candidates(i);
+                    twice |= once & cand;
+                    once |= cand;
+                }
+                if ((once | used) != all) return false;
+                int hidden = once & ~twice & ~used;
+                for (; hidden != 0; hidden &= hidden - 1) {
+                    int bit = hidden & -hidden;
+                    for (int i : unit) {
+                        if (cells[i] != 0 || (candidates(i) & bit) == 0) continue;
+                        place(i, Integer.numberOfTrailingZeros(bit) + 1);
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // One of the set bits of mask, uniformly at random
+    private int randomBit(int mask) {
+        int bit = mask;
+        for (int k = random.nextInt(Integer.bitCount(mask)); k > 0; k--) bit &= bit - 1;
+        return bit & -bit;
+    }
+
+    private int candidates(int i) {
+        checks++;
+        return ~(rowUsed[rowOf[i]] | colUsed[colOf[i]] | boxUsed[boxOf[i]]) & all;
+    }
+
+    private void place(int i, int v) {
+        int bit = 1 << (v - 1);
+        cells[i] = v;
+        rowUsed[rowOf[i]] |= bit;
+        colUsed[colOf[i]] |= bit;
+        boxUsed[boxOf[i]] |= bit;
+        trail[trailSize++] = i;
+        if (sink != null) sink.accept(StepTrace.put(rowOf[i], colOf[i], v));
+    }
+
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            int i = trail[--trailSize];
+            int bit = ~(1 << (cells[i] - 1));
+            cells[i] = 0;
+            rowUsed[rowOf[i]] &= bit;
+            colUsed[colOf[i]] &= bit;
+            boxUsed[boxOf[i]] &= bit;
+            if (sink != null) sink.accept(StepTrace.clear(rowOf[i], colOf[i]));
+        }
+    }
+}
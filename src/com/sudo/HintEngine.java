@@ -0,0 +1,120 @@
+package com.sudo;
+
+/**
+ * Logical hints for a board being edited. The candidate mask of every empty cell is kept up to
+ * date as cells change: an edit only recounts the digits of the cell's three units and refreshes
+ * the cell and its 20 peers. {@link #next()} hands these candidates to the
+ * {@link DifficultyGrader} ladder and runs it until it places a digit, so a hint costs a few
+ * technique sweeps over the current board, never a search.
+ * <p>
+ * Candidates follow the solver's rule ({@link Board#canPlace}): a digit is a candidate of an
+ * empty cell when no peer holds it. Not thread-safe.
+ */
+public class HintEngine {
+
+    private static final int[][] UNITS_OF = Board.UNITS_OF;
+    private static final int[][] PEERS = Board.PEERS;
+
+    /** A placement that follows from the board by logic alone. */
+    public static final class Hint {
+
+        public final int row;
+        public final int col;
+        public final int value;
+        public final Technique technique;   // hardest technique needed to reach the placement
+
+        Hint(int cell, int value, Technique technique) {
+            this.row = Board.ROW[cell];
+            this.col = Board.COL[cell];
+            this.value = value;
+            this.technique = technique;
+        }
+    }
+
+    private final Board board = new Board();
+    // counts[unit][digit] of placed digits, and the digits present in each unit as a mask
+    private final int[][] counts = new int[27][10];
+    private final int[] used = new int[27];
+    private final int[] cand = new int[81];
+    private int duplicates;
+
+    private final DifficultyGrader grader = new DifficultyGrader();
+    // result of the last next() call, valid until the board changes
+    private Hint cached;
+    private boolean cacheValid;
+
+    public HintEngine() {
+        clear();
+    }
+
+    /** Empties the board. */
+    public void clear() {
+        board.restore(new byte[Board.CELLS]);
+        for (int[] unit : counts) java.util.Arrays.fill(unit, 0);
+        java.util.Arrays.fill(used, 0);
+        java.util.Arrays.fill(cand, 0x1FF);
+        duplicates = 0;
+        cacheValid = false;
+    }
+
+    /** Sets a cell (0..80) to a digit, 0 for empty. */
+    public void set(int cell, int value) {
+        int old = board.get(cell);
+        if (old == value) return;
+        for (int u : UNITS_OF[cell]) {
+            if (old != 0 && --counts[u][old] == 0) used[u] &= ~(1 << (old - 1));
+            if (old != 0 && counts[u][old] == 1) duplicates--;
+            if (value != 0 && ++counts[u][value] == 1) used[u] |= 1 << (value - 1);
+            if (value != 0 && counts[u][value] == 2) duplicates++;
+        }
+        board.set(cell, value);
+        refresh(cell);
+        for (int p : PEERS[cell]) refresh(p);
+        cacheValid = false;
+    }
+
+    public int get(int cell) {
+        return board.get(cell);
+    }
+
+    /** Candidate digits of a cell as a mask (bit v-1); 0 for a filled cell. */
+    public int candidates(int cell) {
+        return cand[cell];
+    }
+
+    /**
+     * Next placement logic can make, using the easiest technique that makes progress at every
+     * stage; null when the board is full, has a duplicate or a contradiction, or would need
+     * guessing. Repeated calls without edits return the same hint.
+     */
+    public Hint next() {
+        if (!cacheValid) {
+            cached = duplicates > 0 ? null : deduce();
+            cacheValid = true;
+        }
+        return cached;
+    }
+
+    private Hint deduce() {
+        grader.load(board, cand);
+        Technique hardest = Technique.NAKED_SINGLE;
+        // a full board has nothing left to place, so step() returns null
+        while (!grader.isBroken()) {
+            Technique t = grader.step();
+            if (t == null || grader.isBroken()) return null;
+            if (t.compareTo(hardest) > 0) hardest = t;
+            int cell = grader.placedCell();
+            if (cell >= 0) return new Hint(cell, grader.valueAt(cell), hardest);
+        }
+        return null;
+    }
+
+    private void refresh(int i) {
+        if (board.get(i) != 0) {
+            cand[i] = 0;
+            return;
+        }
+        int[] units = UNITS_OF[i];
+        cand[i] = ~(used[units[0]] | used[units[1]] | used[units[2]]) & 0x1FF;
+    }
+}
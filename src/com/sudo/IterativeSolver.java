@@ -0,0 +1,187 @@
+package com.sudo;
+
+import java.util.Arrays;
+
+/**
+ * Backtracking engine driven one step at a time over an explicit stack instead of recursion.
+ * <p>
+ * {@link #next()} performs exactly one PUT or CLEAR and returns it, so a caller can stop and
+ * resume the search anywhere; going back is left to a recording such as {@link SeekableTrace}.
+ * The step sequence is identical to the recursive {@link SudokuSolver} backtracking engine with
+ * the same {@link SudokuSolver.Heuristic}.
+ * <p>
+ * Not thread-safe; callers that drive it from several threads must synchronize.
+ */
+public class IterativeSolver implements Solver {
+
+    /** Returned by {@link #next()} when there is no step to take. */
+    public static final int END = -1;
+
+    private final Board board = new Board();
+    private final int[] rowUsed = new int[9];
+    private final int[] colUsed = new int[9];
+    private final int[] boxUsed = new int[9];
+    // cellAt[k] = cell chosen at depth k; cells of depths < depth hold a value, -1 = board full
+    private final int[] cellAt = new int[82];
+    private int depth;
+    // next value to try at cellAt[depth]; 10 = all tried
+    private int cursor;
+    private long stepCount;
+    private long checks;
+    private State state = State.SOLVED;
+    private SudokuSolver.Heuristic heuristic = SudokuSolver.Heuristic.ROW_MAJOR;
+    private java.util.function.BooleanSupplier stop;
+
+    public SudokuSolver.Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    public void setHeuristic(SudokuSolver.Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /** Starts a new search on {@code grid}; conflicting givens leave the solver in FAILED. */
+    public void reset(int[][] grid) {
+        Arrays.fill(rowUsed, 0);
+        Arrays.fill(colUsed, 0);
+        Arrays.fill(boxUsed, 0);
+        depth = 0;
+        cursor = 1;
+        stepCount = 0;
+        checks = 0;
+        state = State.RUNNING;
+        for (int i = 0; i < Board.CELLS; i++) {
+            board.set(i, 0);
+            int v = grid[i / 9][i % 9];
+            if (v == 0) continue;
+            if ((candidates(i) & (1 << (v - 1))) == 0) state = State.FAILED;
+            place(i, v);
+        }
+        cellAt[0] = select();
+        if (state == State.RUNNING && cellAt[0] < 0) state = State.SOLVED;
+    }
+
+    /** Performs the next PUT or CLEAR and returns it packed, or {@link #END} once solved or failed. */
+    public int next() {
+        if (state != State.RUNNING) return END;
+        int cell = cellAt[depth];
+        int cand = cell < 0 ? 0 : candidates(cell) & -(1 << (cursor - 1));
+        if (cand != 0) {
+            int v = Integer.numberOfTrailingZeros(cand) + 1;
+            place(cell, v);
+            cellAt[++depth] = select();
+            cursor = 1;
+            stepCount++;
+            if (cellAt[depth] < 0) state = State.SOLVED;
+            return StepTrace.put(cell / 9, cell % 9, v);
+        }
+        if (depth == 0) {
+            state = State.FAILED;
+            return END;
+        }
+        cell = cellAt[--depth];
+        cursor = board.get(cell) + 1;
+        remove(cell);
+        stepCount++;
+        return StepTrace.clear(cell / 9, cell % 9);
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    @Override
+    public long getCandidateChecks() {
+        return checks;
+    }
+
+    /** Polled after every step of {@link #solve} and {@link #countSolutions}; {@link #next()} ignores it. */
+    @Override
+    public void setStopCondition(java.util.function.BooleanSupplier stop) {
+        this.stop = stop;
+    }
+
+    public boolean isSolved() {
+        return state == State.SOLVED;
+    }
+
+    public boolean isFailed() {
+        return state == State.FAILED;
+    }
+
+    /** Copy of the current board. */
+    public int[][] board() {
+        return board.toGrid();
+    }
+
+    @Override
+    public int[][] solve(int[][] grid, StepSink sink) {
+        reset(grid);
+        for (int step = next(); step != END; step = next()) {
+            if (sink != null) sink.accept(step);
+            if (stop != null && stop.getAsBoolean()) return null;
+        }
+        return isSolved() ? board() : null;
+    }
+
+    @Override
+    public int countSolutions(int[][] grid, int limit) {
+        reset(grid);
+        int found = 0;
+        while (found < limit) {
+            while (next() != END) {
+                if (stop != null && stop.getAsBoolean()) return found;
+            }
+            if (!isSolved()) break;
+            found++;
+            // keep searching: with the board full, next() backtracks out of the solution
+            state = State.RUNNING;
+        }
+        return found;
+    }
+
+    private int candidates(int i) {
+        checks++;
+        return ~(rowUsed[Board.ROW[i]] | colUsed[Board.COL[i]] | boxUsed[Board.BOX[i]]) & 0x1FF;
+    }
+
+    private void place(int i, int v) {
+        int bit = 1 << (v - 1);
+        board.set(i, v);
+        rowUsed[Board.ROW[i]] |= bit;
+        colUsed[Board.COL[i]] |= bit;
+        boxUsed[Board.BOX[i]] |= bit;
+    }
+
+    private void remove(int i) {
+        int bit = ~(1 << (board.get(i) - 1));
+        board.set(i, 0);
+        rowUsed[Board.ROW[i]] &= bit;
+        colUsed[Board.COL[i]] &= bit;
+        boxUsed[Board.BOX[i]] &= bit;
+    }
+
+    // Same cell choice as SudokuSolver.findEmpty, so both engines produce the same steps
+    private int select() {
+        if (heuristic == SudokuSolver.Heuristic.ROW_MAJOR) {
+            for (int i = 0; i < Board.CELLS; i++) if (board.get(i) == 0) return i;
+            return -1;
+        }
+        int best = -1, bestCount = 10, bestDegree = -1;
+        for (int i = 0; i < Board.CELLS; i++) {
+            if (board.get(i) != 0) continue;
+            int count = Integer.bitCount(candidates(i));
+            if (count == 0) return i;
+            if (count > bestCount) continue;
+            int degree = heuristic == SudokuSolver.Heuristic.MRV_DEGREE ? board.emptyPeers(i) : 0;
+            if (count < bestCount || degree > bestDegree) {
+                best = i;
+                bestCount = count;
+                bestDegree = degree;
+            }
+        }
+        return best;
+    }
+
+    private enum State {RUNNING, SOLVED, FAILED}
+}
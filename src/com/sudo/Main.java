@@ -1,5 +1,6 @@
 package com.sudo;
 
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
@@ -8,40 +9,105 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Slider;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public class Main extends Application {
 
     private final TextField[][] cells = new TextField[9][9];
-    private final SudokuSolver solver = new SudokuSolver();
+    // 逐步执行的求解器：动画每帧取出到期的步骤；后退与拖动进度条由 trace 记录完成
+    private final IterativeSolver solver = new IterativeSolver();
+    private final BitmaskSolver checker = new BitmaskSolver();  // 求解前快速判断是否有解
     private final SudokuGenerator generator = new SudokuGenerator();
+    // 题库抽题与生成种子共用的随机源（java.util.Random 线程安全，题目池线程也从这里取种子）
+    private final java.util.Random random = new java.util.Random();
+    // 后台预生成的题目池（按挖空数分级），Random 时直接取用，避免在界面线程上生成。
+    // 每道题用单独抽取的种子生成并随题保存，出题时记录到日志，可用 SudokuGenerator.generate 复现
+    private final SudokuGenerator poolGenerator = new SudokuGenerator();  // 只在题目池线程上使用
+    private final PuzzlePool puzzlePool = new PuzzlePool(holes -> {
+        Puzzle p = poolGenerator.generate(random.nextLong(), holes);
+        storePuzzle(holes, p);
+        return p;
+    }, 8, 3);
+    // 磁盘题库：生成过的题目与答案会保存下来，下次启动可立即出题
+    private static final Path STORE_FILE = Path.of(System.getProperty("user.home"), ".sudo", "puzzles.bin");
+    private volatile PuzzleStore puzzleStore;
 
-    private final Object workerLock = new Object();
     private final javafx.scene.control.Label speedLabel = new javafx.scene.control.Label();
     private final javafx.scene.control.Label diffLabel = new javafx.scene.control.Label();
+    // 当前题目的搜索统计（节点、回溯、深度、候选检查、耗时、分配），与动画播放的搜索相同
+    private final javafx.scene.control.Label statsLabel = new javafx.scene.control.Label();
+    private long statsGeneration;   // 每次求解加一；后台统计结果只在仍属于当前这次求解时才显示（仅在 FX 线程读写）
     private final javafx.scene.control.Label messageLabel = new javafx.scene.control.Label();
     // 保存当前题目的完整解，以及标记哪些是给定格
     private final int[][] currentSolution = new int[9][9];
     private final boolean[][] isGiven = new boolean[9][9];
     private final int[][] initialPuzzle = new int[9][9];  // 用于保存程序启动时的初始状态（若无 random）
     private final int[][] randomPuzzle = new int[9][9];   // 用于保存点击 random 时生成的题目
-    private Thread workerThread;
-    private volatile boolean running = false;
-    private volatile boolean paused = false;
-    private List<SudokuSolver.Step> currentSteps;
+    // 动画由 AnimationTimer 驱动：每帧在 FX 线程上取出到期的全部步骤，合并后一次性刷新界面
+    private final AnimationTimer animationTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            animationPulse(now);
+        }
+    };
+    private long lastPulse;      // 上一帧的时间戳（纳秒）
+    private long pendingNanos;   // 不足一步的剩余时间，累加到下一帧
+    // 本帧内每个格子最后一步（同一格多次写入只保留最后一次），以及被写过的格子列表
+    private final int[] frameStep = new int[81];
+    private final boolean[] frameDirty = new boolean[81];
+    private final int[] frameCells = new int[81];
+    // 每个格子动画用的样式字符串，预先拼好，避免每步重建 CSS
+    private final String[][] putStyle = new String[9][9];
+    private final String[][] clearStyle = new String[9][9];
+    private final String[][] givenStyle = new String[9][9];
+    private final String[][] emptyStyle = new String[9][9];
+    private final String[][] errorStyle = new String[9][9];
+    // 输入时增量维护的冲突状态：每次编辑只更新所在行、列、宫的计数，只重绘状态变化的格子
+    private final ConflictTracker conflicts = new ConflictTracker();
+    // 同样随输入增量维护每个空格的候选数，点击 Hint 时只做逻辑推理，不重新搜索
+    private final HintEngine hints = new HintEngine();
+    private final boolean[][] illegal = new boolean[9][9];  // 非 1~9 的输入
+    private final int[] changedCells = new int[21];
+    // 动画模式下用单个 Canvas 绘制棋盘，代替逐个修改 81 个 TextField 的样式；动画结束后结果写回 TextField
+    private GridPane gridPane;
+    private BoardCanvas boardCanvas;
+    private CheckBox canvasViewBox;
+    private boolean onCanvas = false;   // 当前动画是否画在 Canvas 上
+    private boolean running = false;
+    private boolean paused = false;
+    // 求解已走到终点：停在最后一步，进度条和单步按钮仍可回看，直到重新求解或编辑棋盘
+    private boolean solveFinished = false;
+    private boolean applyingStep = false;   // 程序写入步骤时的文本变化不算用户编辑
     // UI controls referenced across methods
     private Button pauseBtn;
-    private int stepIndex;
+    private long stepIndex;
+    // 播放过的步骤记录：每 TRACE_KEYFRAME_INTERVAL 步保存一次整盘快照，拖动进度条或后退时
+    // 只需恢复一个快照再重放不超过该间隔的步数；最多保留 TRACE_MAX_STEPS 步，超出时丢弃最早的一半
+    private static final int TRACE_KEYFRAME_INTERVAL = 1024;
+    private static final int TRACE_MAX_STEPS = 1 << 24;
+    private final SeekableTrace trace = new SeekableTrace(TRACE_KEYFRAME_INTERVAL, TRACE_MAX_STEPS);
+    private final Board shown = new Board();      // 当前显示的盘面
+    private final Board seekBoard = new Board();  // 跳转目标盘面
+    private Slider scrubber;
+    private boolean updatingScrubber = false;     // 程序更新进度条时不触发跳转
     // dynamic params
-    private volatile int solveSpeedMs = 80;      // milliseconds per step
+    private int solveSpeedMs = 80;      // milliseconds per step; 0 = stepsPerFrame steps every frame
+    private int stepsPerFrame = MIN_STEPS_PER_FRAME;
+    // 1 ms/step 约为每帧 16 步，所以按帧计速从 32 步起，每档翻倍
+    private static final int MIN_STEPS_PER_FRAME = 32;
+    private static final int MAX_STEPS_PER_FRAME = 1 << 16;
     private int removeCount = 45;       // holes for generated puzzle
 
     //    private final int[][] currentPuzzleState = new int[9][9]; // 用来保存当前题目的状态
@@ -54,12 +120,34 @@ public class Main extends Application {
         launch();
     }
 
+    @Override
+    public void stop() throws IOException {
+        puzzlePool.close();
+        if (puzzleStore != null) puzzleStore.close();
+    }
+
     @Override
     public void start(Stage stage) {
+        // 优先分支候选数最少的格子，困难题目的回溯步数大幅减少
+        solver.setHeuristic(SudokuSolver.Heuristic.MRV_DEGREE);
+
+        try {
+            puzzleStore = new PuzzleStore(STORE_FILE);
+        } catch (IOException ex) {
+            System.err.println("无法打开题库 " + STORE_FILE + "：" + ex.getMessage());
+        }
+
         BorderPane root = new BorderPane();
 
-        GridPane gridPane = createGrid();
-        root.setCenter(gridPane);
+        gridPane = createGrid();
+        // 与格子布局一致（60 像素格 + 4 像素间距），叠放在 TextField 棋盘上，只在动画时显示
+        boardCanvas = new BoardCanvas(60, 4);
+        boardCanvas.setVisible(false);
+        // 回看时 Canvas 不可编辑：点击即结束回看，换回可编辑的格子
+        boardCanvas.setOnMouseClicked(e -> {
+            if (solveFinished) stopAnimation();
+        });
+        root.setCenter(new StackPane(gridPane, boardCanvas));
 
         HBox controlRow1 = new HBox(10);
         controlRow1.setAlignment(Pos.CENTER);
@@ -89,7 +177,28 @@ public class Main extends Application {
         Button easier = new Button("Easier");
         Button harder = new Button("Harder");
 
-        controlRow2.getChildren().addAll(speedMinus, speedPlus, speedLabel, easier, harder, diffLabel);
+        controlRow2.getChildren().addAll(speedMinus, speedPlus, speedLabel, statsLabel, easier, harder, diffLabel);
+
+        // third row: single-step controls (pause the animation first)
+        HBox controlRow3 = new HBox(8);
+        controlRow3.setAlignment(Pos.CENTER);
+
+        Button stepBackBtn = new Button("< Step");
+        Button stepForwardBtn = new Button("Step >");
+        Button hintBtn = new Button("Hint");
+        stepBackBtn.setPrefWidth(90);
+        stepForwardBtn.setPrefWidth(90);
+        hintBtn.setPrefWidth(90);
+
+        canvasViewBox = new CheckBox("Canvas view");
+        canvasViewBox.setSelected(true);
+
+        // 进度条：范围是已记录的步骤，拖动时暂停动画并跳到对应步
+        scrubber = new Slider(0, 0, 0);
+        scrubber.setPrefWidth(160);
+        scrubber.setDisable(true);
+
+        controlRow3.getChildren().addAll(stepBackBtn, stepForwardBtn, hintBtn, scrubber, canvasViewBox);
 
         VBox vbox = new VBox(12);
         vbox.setAlignment(Pos.CENTER);
@@ -101,7 +210,7 @@ public class Main extends Application {
 
         vbox.getChildren().add(messageLabel);   // <--- 新增
         vbox.setAlignment(Pos.CENTER);
-        vbox.getChildren().addAll(controlRow1, controlRow2);
+        vbox.getChildren().addAll(controlRow1, controlRow2, controlRow3);
 
         root.setBottom(vbox);
 
@@ -117,14 +226,21 @@ public class Main extends Application {
                 } else {
                     paused = false;
                     pauseBtn.setText("Pause");
-                    synchronized (workerLock) {
-                        workerLock.notifyAll();
-                    }
                 }
             }
         });
 
+        stepBackBtn.setOnAction(e -> stepManually(false));
+        stepForwardBtn.setOnAction(e -> stepManually(true));
+        scrubber.valueProperty().addListener((obs, oldValue, value) -> {
+            if (updatingScrubber || !running) return;
+            pauseAnimation();
+            seekTo(Math.round(value.doubleValue()));
+        });
+        hintBtn.setOnAction(e -> showHint());
+
         randomBtn.setOnAction(e -> {
+            stopAnimation();
             isPuzzleGenerated = true;
             // 生成一个新的数独题目
             int[][] generatedPuzzle = generateRandomPuzzle();
@@ -140,6 +256,7 @@ public class Main extends Application {
         validateBtn.setOnAction(e -> validateBoard());
 
         clearButton.setOnAction(e -> {
+            stopAnimation();
             // 清空所有格子的内容
             for (int i = 0; i < 9; i++) {
                 for (int j = 0; j < 9; j++) {
@@ -163,6 +280,7 @@ public class Main extends Application {
         });
 
         resetBtn.setOnAction(e -> {
+            stopAnimation();
             int[][] puzzleToReset;
             if (isPuzzleGenerated) {
                 // 如果点击过 random，重置到 random 状态
@@ -178,27 +296,25 @@ public class Main extends Application {
 
 
         speedMinus.setOnAction(e -> {
-            synchronized (workerLock) {
-                if (solveSpeedMs < 10) solveSpeedMs = Math.min(10, solveSpeedMs + 1);
-                else solveSpeedMs = Math.min(1000, solveSpeedMs + 20);
-                updateLabels();
-                workerLock.notifyAll();
-            }
+            if (solveSpeedMs == 0 && stepsPerFrame > MIN_STEPS_PER_FRAME) stepsPerFrame /= 2;
+            else if (solveSpeedMs < 10) solveSpeedMs = Math.min(10, solveSpeedMs + 1);
+            else solveSpeedMs = Math.min(1000, solveSpeedMs + 20);
+            updateLabels();
         });
         speedPlus.setOnAction(e -> {
-            synchronized (workerLock) {
-                if (solveSpeedMs > 10) solveSpeedMs = Math.max(10, solveSpeedMs - 20);
-                else solveSpeedMs = Math.max(0, solveSpeedMs - 1);
-                updateLabels();
-                workerLock.notifyAll();
-            }
+            if (solveSpeedMs > 10) solveSpeedMs = Math.max(10, solveSpeedMs - 20);
+            else if (solveSpeedMs > 0) solveSpeedMs--;
+            else stepsPerFrame = Math.min(MAX_STEPS_PER_FRAME, stepsPerFrame * 2);
+            updateLabels();
         });
         easier.setOnAction(e -> {
             removeCount = Math.max(20, removeCount - 3);
+            puzzlePool.prefill(removeCount);
             updateLabels();
         });
         harder.setOnAction(e -> {
             removeCount = Math.min(64, removeCount + 3);
+            puzzlePool.prefill(removeCount);
             updateLabels();
         });
 
@@ -220,6 +336,13 @@ public class Main extends Application {
                 TextField tf = new TextField();
                 tf.setPrefSize(60, 60);
                 tf.setStyle(baseCellStyle(r, c));
+                putStyle[r][c] = cellStyleWithBackground(r, c, "#d1ffd1");
+                clearStyle[r][c] = cellStyleWithBackground(r, c, "#ffd1d1");
+                givenStyle[r][c] = cellStyleWithBackground(r, c, "#e6e6ff");
+                emptyStyle[r][c] = cellStyleWithBackground(r, c, "white");
+                errorStyle[r][c] = cellStyleWithBackground(r, c, "#ffb3b3");
+                final int row = r, col = c;
+                tf.textProperty().addListener((obs, oldText, text) -> onCellEdited(row, col, text));
                 cells[r][c] = tf;
                 gridPane.add(tf, c, r);
             }
@@ -253,29 +376,21 @@ public class Main extends Application {
     }
 
     private int[][] generateRandomPuzzle() {
-        int[][] full = generator.generateFull();
-        if (full == null) {
-            System.err.println("generator.generateFull() 返回 null，无法生成题目。");
-            showMessage("生成完整解失败，请检查 SudokuGenerator。");
-            return new int[9][9]; // 返回一个空的数独题目
+        // 优先从题目池中取（O(1)），其次从磁盘题库中取，都没有时才同步生成
+        Puzzle pooled = puzzlePool.take(removeCount);
+        if (pooled == null) pooled = loadStoredPuzzle(removeCount);
+        if (pooled == null) {
+            // 同步生成：逐个挖空并保证唯一解（题目过难时实际挖空数可能略少）
+            pooled = generator.generate(random.nextLong(), removeCount);
+            storePuzzle(removeCount, pooled);
         }
+        // 记录种子，同一种子与挖空数可用 SudokuGenerator.generate 复现同一道题（磁盘题库中的旧题没有种子）
+        if (pooled.seed != null) System.err.println("出题：种子 " + pooled.seed + "，挖空 " + removeCount);
 
-        // 保存完整解
+        // 保存完整解，currentSolution 即为唯一答案
+        int[][] full = pooled.solution;
         for (int i = 0; i < 9; i++) System.arraycopy(full[i], 0, currentSolution[i], 0, 9);
-
-        int[][] puzzle = new int[9][9];
-        for (int i = 0; i < 9; i++) System.arraycopy(full[i], 0, puzzle[i], 0, 9);
-
-        int removed = 0;
-        java.util.Random rnd = new java.util.Random();
-        while (removed < removeCount) {
-            int r = rnd.nextInt(9);
-            int c = rnd.nextInt(9);
-            if (puzzle[r][c] != 0) {
-                puzzle[r][c] = 0;
-                removed++;
-            }
-        }
+        int[][] puzzle = pooled.givens;
 
         Platform.runLater(() -> {
             for (int r = 0; r < 9; r++) {
@@ -301,8 +416,30 @@ public class Main extends Application {
         return puzzle;  // 返回生成的数独题目
     }
 
+    // 从磁盘题库中随机取一道该难度的题，没有或读取失败时返回 null
+    private Puzzle loadStoredPuzzle(int holes) {
+        PuzzleStore store = puzzleStore;
+        if (store == null) return null;
+        try {
+            return store.random(holes, random);
+        } catch (IOException ex) {
+            System.err.println("读取题库失败：" + ex.getMessage());
+            return null;
+        }
+    }
+
+    private void storePuzzle(int holes, Puzzle p) {
+        PuzzleStore store = puzzleStore;
+        if (store == null) return;
+        try {
+            store.append(holes, p);
+        } catch (IOException ex) {
+            System.err.println("写入题库失败：" + ex.getMessage());
+        }
+    }
+
     private void updateLabels() {
-        speedLabel.setText("Speed: " + solveSpeedMs + " ms/step");
+        speedLabel.setText(solveSpeedMs > 0 ? "Speed: " + solveSpeedMs + " ms/step" : "Speed: " + stepsPerFrame + " steps/frame");
         diffLabel.setText("Difficulty (holes): " + removeCount);
     }
 
@@ -344,10 +481,18 @@ public class Main extends Application {
             return;
         }
 
-        // 现在调用 solver 生成步骤
-        currentSteps = solver.generateSteps(grid);
+        // 先用位掩码引擎快速判断是否有解（微秒级），真正的求解步骤在动画中逐帧边算边播
+        boolean hasEmpty = false;
+        for (int r = 0; r < 9 && !hasEmpty; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (grid[r][c] == 0) {
+                    hasEmpty = true;
+                    break;
+                }
+            }
+        }
 
-        if (currentSteps == null || currentSteps.isEmpty()) {
+        if (!hasEmpty || checker.solve(grid) == null) {
             // 显示提示（一行居中）；不要弹窗
             showMessage("无法生成求解步骤（可能无解或输入冲突），已取消求解。");
 
@@ -365,76 +510,276 @@ public class Main extends Application {
         stepIndex = 0;
         running = true;
         paused = false;
+        solver.reset(grid);
+        shown.copyFrom(Board.of(grid));
+        trace.reset(shown);
+        scrubber.setDisable(false);
+        updateScrubber();
+        onCanvas = canvasViewBox.isSelected();
+        if (onCanvas) {
+            boardCanvas.load(grid, isGiven);
+            boardCanvas.setVisible(true);
+            gridPane.setVisible(false);
+        }
 
-        workerThread = new Thread(() -> {
-            try {
-                while (running) {
-                    if (currentSteps == null || stepIndex >= currentSteps.size()) {
-                        break;
-                    }
-                    synchronized (workerLock) {
-                        while (paused && running) {
-                            workerLock.wait();
-                        }
-                    }
-                    if (!running) break;
-                    SudokuSolver.Step step = currentSteps.get(stepIndex++);
-                    applyStepToUI(step);
-                    long startWait = System.nanoTime();
-                    synchronized (workerLock) {
-                        while (running) {
-                            if (paused) break;
-                            long elapsed = (System.nanoTime() - startWait) / 1_000_000L;
-                            long delay = solveSpeedMs;
-                            long remaining = delay - elapsed;
-                            if (remaining <= 0) break;
-                            workerLock.wait(remaining);
-                        }
-                    }
-                }
-            } catch (InterruptedException ex) {
-                // 线程中断，退出
-            } finally {
-                running = false;
-                paused = false;
-                Platform.runLater(() -> {
-                    setBoardEditable(true);
-                    if (pauseBtn != null) pauseBtn.setText("Pause");
-                });
-            }
-        }, "Sudoku-Worker");
-        workerThread.setDaemon(true);
-        workerThread.start();
+        // 统计在后台线程上单独求解，不占用界面线程
+        statsLabel.setText("");
+        long generation = ++statsGeneration;
+        Thread statsThread = new Thread(() -> showSolveStats(grid, generation), "Sudoku-Stats");
+        statsThread.setDaemon(true);
+        statsThread.start();
+
+        lastPulse = System.nanoTime();
+        pendingNanos = 0;
+        animationTimer.start();
     }
 
-    private void applyStepToUI(SudokuSolver.Step step) {
-        Platform.runLater(() -> {
-            // 保护给定格：不给定格不被 solver 改写
-            if (isGiven[step.r][step.c]) {
-                return;
+    // 每帧调用一次：按速度算出到期的步数，逐步推进求解器，同一格只刷新最后一次
+    private void animationPulse(long now) {
+        long elapsed = Math.max(0, now - lastPulse);
+        lastPulse = now;
+        if (!running || paused) return;
+
+        int due;
+        if (solveSpeedMs == 0) {
+            due = stepsPerFrame;
+        } else {
+            long perStep = solveSpeedMs * 1_000_000L;
+            // 卡顿后不补放积压的步数，最多按一帧的上限推进
+            pendingNanos = Math.min(pendingNanos + elapsed, perStep * MAX_STEPS_PER_FRAME);
+            due = (int) (pendingNanos / perStep);
+            pendingNanos -= due * perStep;
+        }
+
+        int dirty = 0;
+        boolean reachedEnd = false;
+        for (int k = 0; k < due; k++) {
+            int step = nextStep();
+            if (step == IterativeSolver.END) {
+                reachedEnd = true;
+                break;
             }
-            if (step.type == SudokuSolver.StepType.PUT) {
-                cells[step.r][step.c].setText(String.valueOf(step.val));
-                cells[step.r][step.c].setStyle(cellStyleWithBackground(step.r, step.c, "#d1ffd1"));
-            } else if (step.type == SudokuSolver.StepType.CLEAR) {
-                cells[step.r][step.c].setText("");
-                cells[step.r][step.c].setStyle(cellStyleWithBackground(step.r, step.c, "#ffd1d1"));
+            int cell = StepTrace.row(step) * 9 + StepTrace.col(step);
+            frameStep[cell] = step;
+            if (!frameDirty[cell]) {
+                frameDirty[cell] = true;
+                frameCells[dirty++] = cell;
             }
+        }
+        for (int k = 0; k < dirty; k++) {
+            int cell = frameCells[k];
+            frameDirty[cell] = false;
+            applyStep(frameStep[cell]);
+        }
+        if (onCanvas) boardCanvas.flush();
+        updateScrubber();
+        if (reachedEnd) finishAnimation();
+    }
+
+    // 搜索结束：暂停在末尾而不是停止，保留记录供拖动进度条和单步回看，棋盘恢复可编辑
+    private void finishAnimation() {
+        pauseAnimation();
+        solveFinished = true;
+        setBoardEditable(true);
+    }
+
+    // 下一步：回看过的位置先按记录重放，追上记录末尾后才继续推进求解器
+    private int nextStep() {
+        int step;
+        if (stepIndex < trace.last()) {
+            step = trace.get(stepIndex);
+        } else {
+            step = solver.next();
+            if (step == IterativeSolver.END) return IterativeSolver.END;
+            trace.accept(step);
+        }
+        stepIndex++;
+        return step;
+    }
+
+    /**
+     * 跳到第 target 步之后的盘面：恢复最近的快照并重放其后的步骤，
+     * 只重绘与当前显示不同的格子。
+     */
+    private void seekTo(long target) {
+        target = Math.max(trace.first(), Math.min(trace.last(), target));
+        if (target == stepIndex) return;
+        trace.seek(target, seekBoard);
+        for (int cell = 0; cell < Board.CELLS; cell++) {
+            int v = seekBoard.get(cell);
+            if (v == shown.get(cell)) continue;
+            int r = cell / 9, c = cell % 9;
+            applyStep(v == 0 ? StepTrace.clear(r, c) : StepTrace.put(r, c, v));
+        }
+        if (onCanvas) boardCanvas.flush();
+        stepIndex = target;
+        updateScrubber();
+    }
+
+    private void updateScrubber() {
+        updatingScrubber = true;
+        scrubber.setMin(trace.first());
+        scrubber.setMax(trace.last());
+        scrubber.setValue(stepIndex);
+        updatingScrubber = false;
+    }
+
+    private void pauseAnimation() {
+        if (!paused) {
+            paused = true;
+            pauseBtn.setText("Continue");
+        }
+    }
+
+    // 用同样的引擎与启发式完整求解一遍并统计，结果显示在速度标签旁
+    private void showSolveStats(int[][] grid, long generation) {
+        IterativeSolver profiler = new IterativeSolver();
+        profiler.setHeuristic(solver.getHeuristic());
+        SolveStats stats = new SolveStats();
+        stats.solve(profiler, grid);
+        String alloc = stats.getAllocatedBytes() >= 0 ? String.format(" · %.1f KB", stats.getAllocatedBytes() / 1024.0) : "";
+        String text = String.format("Nodes %d · Backtracks %d · Depth %d · Checks %d · %.2f ms%s",
+                stats.getNodes(), stats.getBacktracks(), stats.getMaxDepth(), stats.getCandidateChecks(),
+                stats.getNanos() / 1e6, alloc);
+        // 统计期间已开始新的求解时丢弃结果，避免旧题目的统计覆盖当前题目
+        Platform.runLater(() -> {
+            if (generation == statsGeneration) statsLabel.setText(text);
         });
     }
 
+    // 在 FX 线程上把一步画到格子上
+    private void applyStep(int step) {
+        SeekableTrace.apply(shown, step);
+        if (onCanvas) {
+            boardCanvas.apply(step);
+            return;
+        }
+        int r = StepTrace.row(step), c = StepTrace.col(step);
+        // 保护给定格：不给定格不被 solver 改写
+        if (isGiven[r][c]) {
+            return;
+        }
+        applyingStep = true;
+        if (StepTrace.isPut(step)) {
+            cells[r][c].setText(String.valueOf(StepTrace.val(step)));
+            cells[r][c].setStyle(putStyle[r][c]);
+        } else {
+            cells[r][c].setText("");
+            cells[r][c].setStyle(clearStyle[r][c]);
+        }
+        applyingStep = false;
+    }
+
+    /**
+     * 单步前进/后退：动画运行中或结束后回看时可用，若未暂停则先暂停。
+     * 后退按记录跳到上一步（快照 + 少量重放），求解器停在已记录的最新位置不动。
+     */
+    private void stepManually(boolean forward) {
+        if (!running) return;
+        pauseAnimation();
+        if (!forward) {
+            seekTo(stepIndex - 1);
+            return;
+        }
+        int step = nextStep();
+        if (step == IterativeSolver.END) return;
+        applyStep(step);
+        if (onCanvas) boardCanvas.flush();
+        updateScrubber();
+    }
+
     private void stopAnimation() {
+        animationTimer.stop();
         running = false;
         paused = false;
-        synchronized (workerLock) {
-            workerLock.notifyAll();
-        }
-        if (workerThread != null) {
-            workerThread.interrupt();
-            workerThread = null;
+        solveFinished = false;
+        if (onCanvas) {
+            // 把 Canvas 上被求解器改过的格子写回 TextField，恢复可编辑的棋盘
+            for (int r = 0; r < 9; r++) {
+                for (int c = 0; c < 9; c++) {
+                    if (isGiven[r][c]) continue;
+                    BoardCanvas.Shade shade = boardCanvas.getShade(r, c);
+                    if (shade != BoardCanvas.Shade.PUT && shade != BoardCanvas.Shade.CLEAR) continue;
+                    int v = boardCanvas.getValue(r, c);
+                    cells[r][c].setText(v == 0 ? "" : String.valueOf(v));
+                    cells[r][c].setStyle(shade == BoardCanvas.Shade.PUT ? putStyle[r][c] : clearStyle[r][c]);
+                }
+            }
+            gridPane.setVisible(true);
+            boardCanvas.setVisible(false);
+            onCanvas = false;
         }
         setBoardEditable(true);
-        if (pauseBtn != null) Platform.runLater(() -> pauseBtn.setText("Pause"));
+        if (pauseBtn != null) pauseBtn.setText("Pause");
+        if (scrubber != null) scrubber.setDisable(true);
+    }
+
+    // 格子文本变化（用户输入或程序填写）时调用：O(1) 更新冲突计数，实时标红/取消标红
+    private void onCellEdited(int r, int c, String text) {
+        // 回看中用户改动棋盘即结束回看，以改动后的盘面为准
+        if (solveFinished && !applyingStep) stopAnimation();
+        String t = text == null ? "" : text.trim();
+        int v = 0;
+        boolean bad = false;
+        if (!t.isEmpty()) {
+            try {
+                v = Integer.parseInt(t);
+                if (v < 1 || v > 9) bad = true;
+            } catch (NumberFormatException ex) {
+                bad = true;
+            }
+            if (bad) v = 0;
+        }
+        boolean badChanged = illegal[r][c] != bad;
+        illegal[r][c] = bad;
+        hints.set(r * 9 + c, v);
+        int n = conflicts.set(r * 9 + c, v, changedCells);
+        for (int k = 0; k < n; k++) restyleLive(changedCells[k]);
+        if (badChanged) restyleLive(r * 9 + c);
+    }
+
+    /**
+     * 提示：按当前盘面用最简单的可用技巧推出下一个可填的数，填入该格并标黄，同时显示所用技巧。
+     * 存在冲突、非法输入或只能靠试探时不给提示。
+     */
+    private void showHint() {
+        if (solveFinished) stopAnimation();
+        if (running) return;
+        boolean anyIllegal = false;
+        for (int r = 0; r < 9 && !anyIllegal; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (illegal[r][c]) {
+                    anyIllegal = true;
+                    break;
+                }
+            }
+        }
+        if (anyIllegal || conflicts.hasConflicts()) {
+            showMessage("存在冲突或非法输入，请先修正后再请求提示。");
+            return;
+        }
+        HintEngine.Hint hint = hints.next();
+        if (hint == null) {
+            showMessage("当前盘面无法仅靠逻辑推出下一步（已填满、存在矛盾或需要试探）。");
+            return;
+        }
+        int r = hint.row, c = hint.col;
+        cells[r][c].setText(String.valueOf(hint.value));   // 触发 onCellEdited，同步冲突与候选数
+        cells[r][c].setStyle(cellStyleWithBackground(r, c, "#fff3b0"));
+        showMessage("提示：第 " + (r + 1) + " 行第 " + (c + 1) + " 列填 " + hint.value
+                + "（" + hint.technique.getLabel() + "）");
+    }
+
+    // 按实时冲突状态重绘一个非给定格：冲突或非法为红色，否则恢复白色
+    private void restyleLive(int cell) {
+        int r = cell / 9, c = cell % 9;
+        if (isGiven[r][c]) return;
+        boolean error = illegal[r][c] || conflicts.isConflict(cell);
+        setStyleIfChanged(cells[r][c], error ? errorStyle[r][c] : emptyStyle[r][c]);
+    }
+
+    private static void setStyleIfChanged(TextField tf, String style) {
+        if (!style.equals(tf.getStyle())) tf.setStyle(style);
     }
 
     private void setBoardEditable(boolean editable) {
@@ -466,117 +811,23 @@ public class Main extends Application {
     private void validateBoard() {
         stopAnimation();
 
-        // 收集数字（0=空）
-        int[][] grid = new int[9][9];
-        boolean[][] error = new boolean[9][9];  // 标记错误格
-
-        // ① 首先检查是否为合法数字（非空且非 1-9）
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-                String t = cells[r][c].getText().trim();
-                if (t.isEmpty()) {
-                    grid[r][c] = 0;
-                    continue;
-                }
-                try {
-                    int v = Integer.parseInt(t);
-                    if (v < 1 || v > 9) {
-                        error[r][c] = true;
-                    } else {
-                        grid[r][c] = v;
-                    }
-                } catch (Exception e) {
-                    error[r][c] = true;
-                }
-            }
-        }
-
-        // ② 行检查（重复）
-        for (int r = 0; r < 9; r++) {
-            int[] cnt = new int[10];
-            for (int c = 0; c < 9; c++) {
-                int v = grid[r][c];
-                if (v != 0) {
-                    cnt[v]++;
-                }
-            }
-            for (int c = 0; c < 9; c++) {
-                int v = grid[r][c];
-                if (v != 0 && cnt[v] > 1) {
-                    error[r][c] = true;
-                }
-            }
-        }
-
-        // ③ 列检查（重复）
-        for (int c = 0; c < 9; c++) {
-            int[] cnt = new int[10];
-            for (int r = 0; r < 9; r++) {
-                int v = grid[r][c];
-                if (v != 0) cnt[v]++;
-            }
-            for (int r = 0; r < 9; r++) {
-                int v = grid[r][c];
-                if (v != 0 && cnt[v] > 1) {
-                    error[r][c] = true;
-                }
-            }
-        }
-
-        // ④ 宫格检查（重复）
-        for (int br = 0; br < 3; br++) {
-            for (int bc = 0; bc < 3; bc++) {
-                int[] cnt = new int[10];
-                for (int r = br * 3; r < br * 3 + 3; r++) {
-                    for (int c = bc * 3; c < bc * 3 + 3; c++) {
-                        int v = grid[r][c];
-                        if (v != 0) cnt[v]++;
-                    }
-                }
-                for (int r = br * 3; r < br * 3 + 3; r++) {
-                    for (int c = bc * 3; c < bc * 3 + 3; c++) {
-                        int v = grid[r][c];
-                        if (v != 0 && cnt[v] > 1) {
-                            error[r][c] = true;
-                        }
-                    }
-                }
-            }
-        }
-
-        // ⑤ 根据错误标记设置样式
-        for (int r = 0; r < 9; r++) {
-            for (int c = 0; c < 9; c++) {
-
-                if (isGiven[r][c]) {
-                    // 给定格保持淡紫色
-                    cells[r][c].setStyle(cellStyleWithBackground(r, c, "#e6e6ff"));
-                    continue;
-                }
-
-                if (error[r][c]) {
-                    // 错误格红色
-                    cells[r][c].setStyle(cellStyleWithBackground(r, c, "#ffb3b3"));
-                } else {
-                    String t = cells[r][c].getText().trim();
-                    if (t.isEmpty()) {
-                        // 空格保持白色
-                        cells[r][c].setStyle(cellStyleWithBackground(r, c, "white"));
-                    } else {
-                        // 正确填写格绿色
-                        cells[r][c].setStyle(cellStyleWithBackground(r, c, "#d1ffd1"));
-                    }
-                }
-            }
-        }
-
-        // 在样式设置完之后，显示验证结果提示（在按钮上方一行居中）
+        // 冲突与非法输入已在输入时增量维护，这里不再重新解析和统计，只更新样式有变化的格子
         boolean anyError = false;
         boolean anyEmpty = false;
         for (int r = 0; r < 9; r++) {
             for (int c = 0; c < 9; c++) {
-                if (error[r][c]) anyError = true;
-                if (cells[r][c].getText().trim().isEmpty()) anyEmpty = true;
+                int cell = r * 9 + c;
+                boolean error = illegal[r][c] || conflicts.isConflict(cell);
+                boolean empty = !illegal[r][c] && conflicts.get(cell) == 0;
+                if (error) anyError = true;
+                if (empty) anyEmpty = true;
+
+                String style;
+                if (isGiven[r][c]) style = givenStyle[r][c];       // 给定格保持淡紫色
+                else if (error) style = errorStyle[r][c];          // 错误格红色
+                else if (empty) style = emptyStyle[r][c];          // 空格保持白色
+                else style = putStyle[r][c];                       // 正确填写格绿色
+                setStyleIfChanged(cells[r][c], style);
             }
         }
 
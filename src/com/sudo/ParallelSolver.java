@@ -0,0 +1,120 @@
+package com.sudo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Uses every core on a single puzzle. The top {@code splitDepth} levels of the search tree are
+ * expanded on the most constrained cell, one fork-join task per candidate value; below that each
+ * task runs a regular engine from its thread's own instance. As soon as one branch finds a
+ * solution the others are cancelled: their engines poll a stop condition
+ * ({@link Solver#setStopCondition}) and unwind, so the instances stay usable for later puzzles.
+ */
+public class ParallelSolver {
+
+    private final ThreadLocal<Solver> solvers;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /** Bitmask engine on the common pool, splitting the top 3 levels. */
+    public ParallelSolver() {
+        this(BitmaskSolver::new, ForkJoinPool.commonPool(), 3);
+    }
+
+    public ParallelSolver(Supplier<? extends Solver> factory, ForkJoinPool pool, int splitDepth) {
+        this.solvers = ThreadLocal.withInitial(factory);
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /** A solution of the grid, or null when there is none. */
+    public int[][] solve(int[][] grid) {
+        Board board = Board.of(grid);
+        if (pickCell(board, new int[1]) == -2) return null;
+        AtomicReference<int[][]> result = new AtomicReference<>();
+        pool.invoke(new Branch(solvers, board, splitDepth, result));
+        return result.get();
+    }
+
+    /**
+     * Empty cell with the fewest candidates as r * 9 + c, storing its candidate mask (bit v-1)
+     * in {@code mask[0]}; -1 when the board is full, -2 when it contains a conflict or a dead cell.
+     */
+    private static int pickCell(Board board, int[] mask) {
+        int[] rowUsed = new int[9], colUsed = new int[9], boxUsed = new int[9];
+        for (int i = 0; i < Board.CELLS; i++) {
+            int v = board.get(i);
+            if (v == 0) continue;
+            int bit = 1 << (v - 1), r = Board.ROW[i], c = Board.COL[i], b = Board.BOX[i];
+            if (((rowUsed[r] | colUsed[c] | boxUsed[b]) & bit) != 0) return -2;
+            rowUsed[r] |= bit;
+            colUsed[c] |= bit;
+            boxUsed[b] |= bit;
+        }
+        int best = -1, bestCount = 10;
+        for (int i = 0; i < Board.CELLS; i++) {
+            if (board.get(i) != 0) continue;
+            int cand = ~(rowUsed[Board.ROW[i]] | colUsed[Board.COL[i]] | boxUsed[Board.BOX[i]]) & 0x1FF;
+            int count = Integer.bitCount(cand);
+            if (count == 0) return -2;
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+                mask[0] = cand;
+            }
+        }
+        return best;
+    }
+
+    private static final class Branch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ThreadLocal<Solver> solvers;
+        private final transient Board board;
+        private final int depth;
+        private final AtomicReference<int[][]> result;
+
+        Branch(ThreadLocal<Solver> solvers, Board board, int depth, AtomicReference<int[][]> result) {
+            this.solvers = solvers;
+            this.board = board;
+            this.depth = depth;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (result.get() != null) return;
+            if (depth == 0) {
+                Solver solver = solvers.get();
+                // stop once a sibling branch has found a solution
+                solver.setStopCondition(() -> result.get() != null);
+                try {
+                    int[][] solution = solver.solve(board.toGrid());
+                    if (solution != null) result.compareAndSet(null, solution);
+                } finally {
+                    solver.setStopCondition(null);
+                }
+                return;
+            }
+
+            int[] mask = new int[1];
+            int cell = pickCell(board, mask);
+            if (cell == -2) return;
+            if (cell == -1) {
+                result.compareAndSet(null, board.toGrid());
+                return;
+            }
+            List<Branch> children = new ArrayList<>();
+            for (int cand = mask[0]; cand != 0; cand &= cand - 1) {
+                Board child = board.copy();
+                child.set(cell, Integer.numberOfTrailingZeros(cand) + 1);
+                children.add(new Branch(solvers, child, depth - 1, result));
+            }
+            invokeAll(children);
+        }
+    }
+}
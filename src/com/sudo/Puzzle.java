@@ -0,0 +1,22 @@
+package com.sudo;
+
+/** A generated puzzle together with its (unique) solution and rating. */
+public final class Puzzle {
+
+    public final int[][] givens;
+    public final int[][] solution;
+    public final Technique rating;   // null when not graded
+    // seed that recreates the puzzle with SudokuGenerator.generate(seed, holes); null when unknown
+    public final Long seed;
+
+    public Puzzle(int[][] givens, int[][] solution, Technique rating) {
+        this(givens, solution, rating, null);
+    }
+
+    public Puzzle(int[][] givens, int[][] solution, Technique rating, Long seed) {
+        this.givens = givens;
+        this.solution = solution;
+        this.rating = rating;
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,120 @@
+package com.sudo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of a large puzzle file (one puzzle per line, see {@link PuzzleFormat}) that is
+ * memory-mapped and parsed straight from the mapped bytes into a caller-owned grid, without
+ * creating Strings. Lines whose first 81 characters are not a puzzle (headers, comments, blank
+ * lines) are skipped, so "puzzle,solution" CSV corpora work as well.
+ * <p>
+ * The file is split into line-aligned {@link Chunk}s that are mapped and consumed independently,
+ * one per parallel consumer; this also keeps every mapping below the 2 GB limit.
+ */
+public class PuzzleCorpus implements Closeable {
+
+    private static final long MAX_CHUNK = 1L << 30;
+
+    private final FileChannel channel;
+    private final long size;
+
+    public PuzzleCorpus(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        size = channel.size();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** Splits the file into at least {@code parts} chunks (more if needed to stay mappable). */
+    public List<Chunk> split(int parts) throws IOException {
+        int n = (int) Math.max(Math.max(1, parts), (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        List<Chunk> chunks = new ArrayList<>(n);
+        long start = 0;
+        for (int i = 1; i <= n && start < size; i++) {
+            long end = i == n ? size : Math.max(start, lineStartAfter(size * i / n));
+            if (end > start) chunks.add(new Chunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /** Offset of the first line that starts after {@code pos}, or the file size. */
+    private long lineStartAfter(long pos) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(256);
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (buf.get(i) == '\n') return pos + i + 1;
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** A line-aligned byte range of the corpus. */
+    public class Chunk {
+        public final long start;
+        public final long end;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /** Maps the chunk; each consumer should open its own reader. */
+        public Reader open() throws IOException {
+            return new Reader(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+        }
+    }
+
+    /** Sequential puzzle reader over one mapped chunk. Not thread-safe. */
+    public static class Reader {
+        private final MappedByteBuffer buf;
+        private final int limit;
+        private int pos;
+
+        Reader(MappedByteBuffer buf) {
+            this.buf = buf;
+            this.limit = buf.limit();
+        }
+
+        /** Parses the next puzzle into {@code grid} (overwritten); false at the end of the chunk. */
+        public boolean next(int[][] grid) {
+            while (pos < limit) {
+                int start = pos;
+                int end = start;
+                while (end < limit && buf.get(end) != '\n') end++;
+                pos = end + 1;
+                if (end - start >= PuzzleFormat.LENGTH && parse(start, grid)) return true;
+            }
+            return false;
+        }
+
+        private boolean parse(int start, int[][] grid) {
+            for (int i = 0; i < PuzzleFormat.LENGTH; i++) {
+                byte ch = buf.get(start + i);
+                if (ch >= '1' && ch <= '9') grid[i / 9][i % 9] = ch - '0';
+                else if (ch == '.' || ch == '0') grid[i / 9][i % 9] = 0;
+                else return false;
+            }
+            return true;
+        }
+    }
+}
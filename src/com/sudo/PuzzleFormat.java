@@ -0,0 +1,48 @@
+package com.sudo;
+
+/**
+ * The common one-line puzzle format: 81 characters in row-major order, digits 1-9 for clues and
+ * '.' or '0' for empty cells. Larger boards (see {@link GeneralSolver}) use size * size
+ * characters with letters for digits above 9 ('A' = 10 ... 'P' = 25).
+ */
+public final class PuzzleFormat {
+
+    public static final int LENGTH = 81;
+
+    private PuzzleFormat() {
+    }
+
+    /** Parses one line into a 9x9 grid; null if it is not a valid 81-character puzzle. */
+    public static int[][] parse(CharSequence line) {
+        return parse(line, 3);
+    }
+
+    /** Parses one line into a grid of the given box size; null if it is not a valid puzzle of that size. */
+    public static int[][] parse(CharSequence line, int boxSize) {
+        int size = boxSize * boxSize;
+        if (line.length() != size * size) return null;
+        int[][] grid = new int[size][size];
+        for (int i = 0; i < size * size; i++) {
+            char ch = line.charAt(i);
+            int v;
+            if (ch == '.' || ch == '0') continue;
+            if (ch >= '1' && ch <= '9') v = ch - '0';
+            else if (ch >= 'A' && ch <= 'Z') v = ch - 'A' + 10;
+            else return null;
+            if (v > size) return null;
+            grid[i / size][i % size] = v;
+        }
+        return grid;
+    }
+
+    /** One line for a square grid of any supported size. */
+    public static String format(int[][] grid) {
+        int size = grid.length;
+        StringBuilder sb = new StringBuilder(size * size);
+        for (int i = 0; i < size * size; i++) {
+            int v = grid[i / size][i % size];
+            sb.append(v == 0 ? '.' : v <= 9 ? (char) ('0' + v) : (char) ('A' + v - 10));
+        }
+        return sb.toString();
+    }
+}
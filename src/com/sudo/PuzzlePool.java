@@ -0,0 +1,91 @@
+package com.sudo;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded pools of ready-made puzzles, one per difficulty level, filled by a background daemon
+ * thread. {@link #take(int)} never generates on the caller's thread: it returns a pooled puzzle
+ * in O(1), or null when that pool is empty. Once a pool drops below the low-water mark the
+ * thread refills it up to capacity.
+ */
+public class PuzzlePool implements AutoCloseable {
+
+    private final IntFunction<Puzzle> factory;
+    private final int capacity;
+    private final int lowWater;
+    private final Map<Integer, ArrayDeque<Puzzle>> pools = new HashMap<>();
+    // levels being refilled, in the order they ran low
+    private final Set<Integer> refilling = new LinkedHashSet<>();
+    private final Thread refiller;
+    private boolean closed;
+
+    /**
+     * @param factory  creates a puzzle for a level; only ever called on the refill thread
+     * @param capacity puzzles kept per level
+     * @param lowWater refilling starts when a level holds fewer puzzles than this
+     */
+    public PuzzlePool(IntFunction<Puzzle> factory, int capacity, int lowWater) {
+        this.factory = factory;
+        this.capacity = capacity;
+        this.lowWater = lowWater;
+        refiller = new Thread(this::refillLoop, "Sudoku-Pool");
+        refiller.setDaemon(true);
+        refiller.start();
+    }
+
+    /** Pooled puzzle for the level, or null if none is ready yet. */
+    public synchronized Puzzle take(int level) {
+        ArrayDeque<Puzzle> pool = pool(level);
+        Puzzle p = pool.pollFirst();
+        if (pool.size() < lowWater && refilling.add(level)) notifyAll();
+        return p;
+    }
+
+    /** Starts filling a level ahead of the first {@link #take(int)}. */
+    public synchronized void prefill(int level) {
+        if (pool(level).size() < capacity && refilling.add(level)) notifyAll();
+    }
+
+    public synchronized int available(int level) {
+        return pool(level).size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        refiller.interrupt();
+    }
+
+    private ArrayDeque<Puzzle> pool(int level) {
+        return pools.computeIfAbsent(level, k -> new ArrayDeque<>(capacity));
+    }
+
+    private void refillLoop() {
+        try {
+            while (true) {
+                int level;
+                synchronized (this) {
+                    while (refilling.isEmpty() && !closed) wait();
+                    if (closed) return;
+                    level = refilling.iterator().next();
+                }
+                Puzzle p = factory.apply(level);
+                synchronized (this) {
+                    ArrayDeque<Puzzle> pool = pool(level);
+                    if (p != null && pool.size() < capacity) pool.addLast(p);
+                    if (pool.size() >= capacity) refilling.remove(level);
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.sudo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Append-only on-disk store of generated puzzles with their solutions.
+ * <p>
+ * After an 8-byte header the file is a sequence of fixed-size records:
+ * <pre>
+ *   level   1 byte   difficulty level chosen by the writer (e.g. hole count)
+ *   rating  1 byte   {@link Technique} ordinal, 0xFF when not graded
+ *   givens  41 bytes 81 cells, 4 bits each, row-major, low nibble first
+ *   solution 41 bytes same encoding
+ * </pre>
+ * Records are appended through a {@link FileChannel}; an index of record numbers per level is
+ * rebuilt from the level bytes when the store is opened. A partial record left by a crash is
+ * dropped on open. All methods are synchronized.
+ */
+public class PuzzleStore implements Closeable {
+
+    public static final int RECORD_SIZE = 84;
+
+    private static final int HEADER_SIZE = 8;
+    private static final int MAGIC = 0x5355444F; // "SUDO"
+    private static final int VERSION = 1;
+    private static final int GRID_BYTES = 41;
+    private static final byte UNRATED = (byte) 0xFF;
+
+    private final FileChannel channel;
+    private final Map<Integer, Level> index = new HashMap<>();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private long count;
+
+    public PuzzleStore(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.size() < HEADER_SIZE) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+            } else {
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                    throw new IOException("not a puzzle store: " + file);
+                }
+            }
+            count = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+            channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+            buildIndex();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Appends a puzzle under the given level (0-255). */
+    public synchronized void append(int level, Puzzle p) throws IOException {
+        record.clear();
+        record.put((byte) level);
+        record.put(p.rating == null ? UNRATED : (byte) p.rating.ordinal());
+        encode(p.givens, record);
+        encode(p.solution, record);
+        record.flip();
+        long pos = HEADER_SIZE + count * RECORD_SIZE;
+        while (record.hasRemaining()) pos += channel.write(record, pos);
+        level(level & 0xFF).add(count++);
+    }
+
+    public synchronized Puzzle read(long recordNo) throws IOException {
+        if (recordNo < 0 || recordNo >= count) throw new IndexOutOfBoundsException("record " + recordNo);
+        record.clear();
+        long pos = HEADER_SIZE + recordNo * RECORD_SIZE;
+        while (record.hasRemaining()) {
+            if (channel.read(record, pos + record.position()) < 0) throw new IOException("truncated store");
+        }
+        record.flip();
+        record.get(); // level
+        byte rating = record.get();
+        int[][] givens = decode(record);
+        int[][] solution = decode(record);
+        return new Puzzle(givens, solution, rating == UNRATED ? null : Technique.values()[rating]);
+    }
+
+    /** A random stored puzzle of the level, or null if the level has none. */
+    public synchronized Puzzle random(int level, Random rnd) throws IOException {
+        Level l = index.get(level);
+        if (l == null || l.size == 0) return null;
+        return read(l.records[rnd.nextInt(l.size)]);
+    }
+
+    public synchronized int count(int level) {
+        Level l = index.get(level);
+        return l == null ? 0 : l.size;
+    }
+
+    public synchronized long size() {
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void buildIndex() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        long recordNo = 0;
+        while (recordNo < count) {
+            buf.clear();
+            long pos = HEADER_SIZE + recordNo * RECORD_SIZE;
+            int n = (int) Math.min(buf.capacity() / RECORD_SIZE, count - recordNo);
+            buf.limit(n * RECORD_SIZE);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, pos + buf.position()) < 0) throw new IOException("truncated store");
+            }
+            for (int i = 0; i < n; i++) level(buf.get(i * RECORD_SIZE) & 0xFF).add(recordNo + i);
+            recordNo += n;
+        }
+    }
+
+    private Level level(int level) {
+        return index.computeIfAbsent(level, k -> new Level());
+    }
+
+    private static void encode(int[][] grid, ByteBuffer out) {
+        for (int i = 0; i < 81; i += 2) {
+            int lo = grid[i / 9][i % 9];
+            int hi = i + 1 < 81 ? grid[(i + 1) / 9][(i + 1) % 9] : 0;
+            out.put((byte) (hi << 4 | lo));
+        }
+    }
+
+    private static int[][] decode(ByteBuffer in) {
+        int[][] grid = new int[9][9];
+        for (int i = 0; i < GRID_BYTES; i++) {
+            int b = in.get() & 0xFF, cell = i * 2;
+            grid[cell / 9][cell % 9] = b & 0xF;
+            if (cell + 1 < 81) grid[(cell + 1) / 9][(cell + 1) % 9] = b >>> 4;
+        }
+        return grid;
+    }
+
+    // record numbers of one level
+    private static class Level {
+        long[] records = new long[16];
+        int size;
+
+        void add(long recordNo) {
+            if (size == records.length) records = Arrays.copyOf(records, size * 2);
+            records[size++] = recordNo;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.sudo;
+
+import java.util.Arrays;
+
+/**
+ * Recording of a solve that can be replayed from any point. Steps are stored packed (see
+ * {@link StepTrace}) and every {@code interval} steps a snapshot of the whole board is kept as a
+ * keyframe, so the board after any recorded step is one snapshot restore plus at most
+ * {@code interval - 1} steps away, however long the trace.
+ * <p>
+ * Step indices are global: step i is the i-th step since {@link #reset(Board)}. At most
+ * {@code maxSteps} steps are kept; when the trace is full the oldest half is dropped, so
+ * {@link #first()} moves forward and memory stays bounded for multi-million-step solves.
+ * Not thread-safe.
+ */
+public class SeekableTrace implements StepSink {
+
+    private final int interval;
+    private final int maxSteps;
+    // board after the last recorded step
+    private final Board head = new Board();
+    private int[] steps = new int[1024];
+    private int size;
+    // keyframes[k] = board after first + k * interval steps
+    private byte[][] keyframes = new byte[16][];
+    private int keyframeCount;
+    private long first;
+
+    public SeekableTrace(int interval, int maxSteps) {
+        if (interval < 1) throw new IllegalArgumentException("interval must be positive");
+        if (maxSteps < 2 * interval) throw new IllegalArgumentException("maxSteps must be at least 2 * interval");
+        this.interval = interval;
+        this.maxSteps = maxSteps;
+    }
+
+    /** Drops all steps and starts recording from {@code start} (usually the givens). */
+    public void reset(Board start) {
+        head.copyFrom(start);
+        size = 0;
+        first = 0;
+        Arrays.fill(keyframes, 0, keyframeCount, null);
+        keyframes[0] = head.snapshot();
+        keyframeCount = 1;
+    }
+
+    @Override
+    public void accept(int step) {
+        if (size == maxSteps) dropOldest();
+        if (size == steps.length) steps = Arrays.copyOf(steps, (int) Math.min(maxSteps, steps.length * 2L));
+        steps[size++] = step;
+        apply(head, step);
+        if (size % interval == 0) {
+            if (keyframeCount == keyframes.length) keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+            keyframes[keyframeCount++] = head.snapshot();
+        }
+    }
+
+    /** Index of the oldest step that can still be sought to. */
+    public long first() {
+        return first;
+    }
+
+    /** Number of steps recorded since the last reset; the board after step {@code last()} is the newest one. */
+    public long last() {
+        return first + size;
+    }
+
+    /** Packed step at a global index in [first(), last()). */
+    public int get(long index) {
+        if (index < first || index >= last()) throw new IndexOutOfBoundsException(Long.toString(index));
+        return steps[(int) (index - first)];
+    }
+
+    /** Writes into {@code out} the board after the first {@code index} steps, index in [first(), last()]. */
+    public void seek(long index, Board out) {
+        if (index < first || index > last()) throw new IndexOutOfBoundsException(Long.toString(index));
+        int offset = (int) (index - first);
+        int k = offset / interval;
+        out.restore(keyframes[k]);
+        for (int i = k * interval; i < offset; i++) apply(out, steps[i]);
+    }
+
+    /** Applies a packed step to a board. */
+    public static void apply(Board board, int step) {
+        int cell = StepTrace.row(step) * 9 + StepTrace.col(step);
+        board.set(cell, StepTrace.isPut(step) ? StepTrace.val(step) : 0);
+    }
+
+    // Forgets the oldest half of the steps (a whole number of keyframe intervals)
+    private void dropOldest() {
+        int dropKeyframes = size / interval / 2;
+        int drop = dropKeyframes * interval;
+        System.arraycopy(steps, drop, steps, 0, size - drop);
+        size -= drop;
+        System.arraycopy(keyframes, dropKeyframes, keyframes, 0, keyframeCount - dropKeyframes);
+        Arrays.fill(keyframes, keyframeCount - dropKeyframes, keyframeCount, null);
+        keyframeCount -= dropKeyframes;
+        first += drop;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sudo;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one {@link SolveStats#solve(Solver, int[][])} call. Only recorded while a flight
+ * recording is running (e.g. {@code -XX:StartFlightRecording:filename=solve.jfr}); otherwise
+ * it costs a check of {@code shouldCommit()}.
+ */
+@Name("com.sudo.Solve")
+@Label("Sudoku Solve")
+@Category("Sudoku")
+@Description("One puzzle solved through SolveStats")
+class SolveEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Solved")
+    boolean solved;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Backtracks")
+    long backtracks;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Candidate Checks")
+    long candidateChecks;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
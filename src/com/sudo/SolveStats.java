@@ -0,0 +1,117 @@
+package com.sudo;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-puzzle search statistics. Works with any engine by counting the steps it reports:
+ * every PUT is a visited node and every CLEAR a backtrack, and the most cells filled at once
+ * is the maximum depth. {@link #solve(Solver, int[][])} also records the engine's candidate
+ * checks, the wall time and the bytes allocated by the solving thread, and commits a
+ * {@link SolveEvent} when a JFR recording has it enabled.
+ * <p>
+ * Used directly as a sink the counters add up over several solves (depth only makes sense
+ * for one); call {@link #reset()} in between to measure puzzles separately.
+ */
+public class SolveStats implements StepSink {
+
+    private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private long nodes;
+    private long backtracks;
+    private int depth;
+    private int maxDepth;
+    private long candidateChecks;
+    private long nanos;
+    private long allocatedBytes = -1;
+
+    @Override
+    public void accept(int step) {
+        if (StepTrace.isPut(step)) {
+            nodes++;
+            if (++depth > maxDepth) maxDepth = depth;
+        } else {
+            backtracks++;
+            depth--;
+        }
+    }
+
+    public void reset() {
+        nodes = 0;
+        backtracks = 0;
+        depth = 0;
+        maxDepth = 0;
+        candidateChecks = 0;
+        nanos = 0;
+        allocatedBytes = -1;
+    }
+
+    /** Resets the counters, solves the grid with them as sink and records all metrics; returns the solution or null. */
+    public int[][] solve(Solver solver, int[][] grid) {
+        reset();
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long bytes = threadAllocatedBytes();
+        long start = System.nanoTime();
+        int[][] solution = solver.solve(grid, this);
+        nanos = System.nanoTime() - start;
+        if (bytes >= 0) allocatedBytes = threadAllocatedBytes() - bytes;
+        candidateChecks = solver.getCandidateChecks();
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = solver instanceof SudokuSolver
+                    ? ((SudokuSolver) solver).getEngine().name() : solver.getClass().getSimpleName();
+            event.solved = solution != null;
+            event.nodes = nodes;
+            event.backtracks = backtracks;
+            event.maxDepth = maxDepth;
+            event.candidateChecks = candidateChecks;
+            event.allocatedBytes = allocatedBytes;
+            event.commit();
+        }
+        return solution;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /** Most cells the search had filled (beyond the givens) at the same time. */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /** Candidate tests made by the engine, see {@link Solver#getCandidateChecks()}. */
+    public long getCandidateChecks() {
+        return candidateChecks;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /** Bytes allocated by the solving thread, or -1 when the JVM cannot measure it. */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes=" + nodes + ", backtracks=" + backtracks + ", maxDepth=" + maxDepth
+                + ", checks=" + candidateChecks + ", time=" + (nanos / 1000) + "us"
+                + (allocatedBytes >= 0 ? ", allocated=" + allocatedBytes + "B" : "");
+    }
+
+    private static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) THREADS;
+            if (t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled()) {
+                return t.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
+    }
+}
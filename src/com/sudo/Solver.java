@@ -0,0 +1,49 @@
+package com.sudo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Common entry points of the solving engines ({@link SudokuSolver}, {@link BitmaskSolver},
+ * {@link DlxSolver}, {@link GeneralSolver}). Grids are 9x9 (any supported size for
+ * GeneralSolver) with 0 for empty cells and are never modified.
+ * Implementations keep reusable scratch state and are not thread-safe.
+ */
+public interface Solver {
+
+    /**
+     * Solves the grid, passing every PUT/CLEAR to {@code sink} (may be null) as it happens.
+     * Replaying the steps on the grid leaves it solved. Returns the solution, or null when there is none.
+     */
+    int[][] solve(int[][] grid, StepSink sink);
+
+    /** Number of solutions of the grid; counting stops once {@code limit} is reached. */
+    int countSolutions(int[][] grid, int limit);
+
+    /**
+     * Candidate tests made by the last solve or count: digit or mask checks for a cell, or
+     * column sizes compared for DLX. 0 when the engine does not count them.
+     */
+    default long getCandidateChecks() {
+        return 0;
+    }
+
+    /**
+     * Polled at every branching node of later solves and counts (null = never stop). Once it
+     * returns true the search unwinds normally: solve returns null and countSolutions the
+     * solutions found so far, and the instance stays usable for the next grid.
+     */
+    void setStopCondition(BooleanSupplier stop);
+
+    /** A solution of the grid, or null when there is none. */
+    default int[][] solve(int[][] grid) {
+        return solve(grid, null);
+    }
+
+    /** PUT/CLEAR steps that solve the grid as Step objects; null when there is no solution. */
+    default List<SudokuSolver.Step> generateSteps(int[][] grid) {
+        List<SudokuSolver.Step> steps = new ArrayList<>();
+        return solve(grid, step -> steps.add(StepTrace.toStep(step))) != null ? steps : null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sudo;
+
+/**
+ * Receives the PUT/CLEAR steps of a search as they happen, packed into an int by
+ * {@link StepTrace#put(int, int, int)} / {@link StepTrace#clear(int, int)}.
+ */
+@FunctionalInterface
+public interface StepSink {
+
+    void accept(int step);
+}
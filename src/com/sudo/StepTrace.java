@@ -0,0 +1,43 @@
+package com.sudo;
+
+/**
+ * Packing of solver steps into one int (4 bytes per step instead of a Step object plus list
+ * slot): bits 0-7 value, 8-15 column, 16-23 row, bit 24 set for CLEAR. Engines report steps in
+ * this form through {@link StepSink}.
+ */
+public final class StepTrace {
+
+    private static final int CLEAR_BIT = 1 << 24;
+
+    private StepTrace() {
+    }
+
+    public static int put(int r, int c, int v) {
+        return r << 16 | c << 8 | v;
+    }
+
+    public static int clear(int r, int c) {
+        return CLEAR_BIT | r << 16 | c << 8;
+    }
+
+    public static boolean isPut(int step) {
+        return (step & CLEAR_BIT) == 0;
+    }
+
+    public static int row(int step) {
+        return (step >>> 16) & 0xFF;
+    }
+
+    public static int col(int step) {
+        return (step >>> 8) & 0xFF;
+    }
+
+    public static int val(int step) {
+        return step & 0xFF;
+    }
+
+    public static SudokuSolver.Step toStep(int step) {
+        return new SudokuSolver.Step(isPut(step) ? SudokuSolver.StepType.PUT : SudokuSolver.StepType.CLEAR,
+                row(step), col(step), val(step));
+    }
+}
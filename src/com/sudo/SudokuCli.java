@@ -0,0 +1,239 @@
+package com.sudo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Headless entry point: solves or generates puzzles in the one-line format without JavaFX.
+ * <pre>
+ * java -cp &lt;classes&gt; com.sudo.SudokuCli solve [--engine bitmask|dlx|backtracking] [--box n] [--parallel] [input|-] [-o output]
+ * java -cp &lt;classes&gt; com.sudo.SudokuCli generate &lt;count&gt; [--box n] [--holes n] [--seed s] [--store file] [-o output]
+ * java -cp &lt;classes&gt; com.sudo.SudokuCli bench [--engine bitmask|dlx|backtracking] &lt;corpus&gt;
+ * </pre>
+ * {@code solve} writes one solution line per puzzle line ("-" when the puzzle has no solution)
+ * and skips blank lines and lines starting with '#'. Puzzles are solved one per core; with
+ * {@code --parallel} they are solved one at a time with every core on the same puzzle
+ * ({@link ParallelSolver}, 9x9 only), which suits a few very hard puzzles. {@code bench} memory-maps a corpus file and
+ * solves it in parallel chunks without writing solutions. {@code generate} digs puzzles with a
+ * unique solution (very high hole counts may end a few holes short); {@code --store} also appends
+ * every puzzle with its solution to a {@link PuzzleStore} (level = requested hole count) for reuse by the app;
+ * with {@code --seed} the generated puzzles are the same on every run. {@code --box} (2-5, default 3)
+ * switches solve and generate to boards of that box size, e.g. 4 for 16x16, using
+ * {@link GeneralSolver} and {@link GeneralGenerator} ({@code --engine} is then rejected);
+ * {@code generate --box} digs unique puzzles with half the cells empty unless {@code --holes}
+ * says otherwise.
+ * Throughput is reported on stderr.
+ */
+public class SudokuCli {
+
+    private static final int BLOCK = 8192;
+    private static final int IO_BUFFER = 1 << 16;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) usage();
+        List<String> rest = new ArrayList<>();
+        String output = null;
+        String store = null;
+        String engine = null;
+        int holes = -1;
+        int box = 3;
+        Long seed = null;
+        boolean parallel = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-o":
+                    output = value(args, ++i);
+                    break;
+                case "--engine":
+                    engine = value(args, ++i);
+                    break;
+                case "--store":
+                    store = value(args, ++i);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value(args, ++i));
+                    break;
+                case "--box":
+                    box = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--holes":
+                    holes = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--parallel":
+                    parallel = true;
+                    break;
+                default:
+                    rest.add(args[i]);
+            }
+        }
+
+        SudokuSolver.Engine e = SudokuSolver.Engine.BITMASK;
+        if (engine != null) {
+            try {
+                e = SudokuSolver.Engine.valueOf(engine.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                usage();
+            }
+        }
+        SudokuSolver.Engine engineChoice = e;
+        int boxSize = box;
+        Supplier<Solver> solvers = () -> {
+            if (boxSize != 3) return new GeneralSolver(boxSize);
+            SudokuSolver s = new SudokuSolver(engineChoice);
+            s.setHeuristic(SudokuSolver.Heuristic.MRV);
+            return s;
+        };
+        if (box < GeneralSolver.MIN_BOX || box > GeneralSolver.MAX_BOX) usage();
+        if (box != 3 && (store != null || parallel || engine != null || args[0].equals("bench"))) usage();
+        if (args[0].equals("bench") && rest.size() == 1) {
+            bench(Path.of(rest.get(0)), solvers);
+            return;
+        }
+        try (Writer out = openOutput(output)) {
+            if (args[0].equals("solve") && rest.size() <= 1) {
+                String input = rest.isEmpty() ? "-" : rest.get(0);
+                try (BufferedReader in = openInput(input)) {
+                    solve(in, out, solvers, box, parallel);
+                }
+            } else if (args[0].equals("generate") && rest.size() == 1 && box != 3) {
+                GeneralGenerator generator = seed == null ? new GeneralGenerator(box) : new GeneralGenerator(box, seed);
+                int size = box * box;
+                generate(generator, Integer.parseInt(rest.get(0)), holes < 0 ? size * size / 2 : holes, out);
+            } else if (args[0].equals("generate") && rest.size() == 1) {
+                if (holes < 0) holes = 45;
+                try (PuzzleStore ps = store == null ? null : new PuzzleStore(Path.of(store))) {
+                    SudokuGenerator generator = seed == null ? new SudokuGenerator() : new SudokuGenerator(seed);
+                    generate(generator, Integer.parseInt(rest.get(0)), holes, out, ps);
+                }
+            } else {
+                usage();
+            }
+        }
+    }
+
+    static void solve(BufferedReader in, Writer out, Supplier<? extends Solver> engine, int boxSize, boolean parallel)
+            throws IOException {
+        BatchSolver batch = new BatchSolver(engine);
+        ParallelSolver single = parallel ? new ParallelSolver(engine, ForkJoinPool.commonPool(), 3) : null;
+        List<int[][]> block = new ArrayList<>(BLOCK);
+        long start = System.nanoTime();
+        long count = 0, unsolved = 0, invalid = 0, lineNo = 0;
+        String line;
+        while (true) {
+            line = in.readLine();
+            if (line != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                int[][] grid = PuzzleFormat.parse(line, boxSize);
+                if (grid == null) {
+                    int size = boxSize * boxSize;
+                    System.err.println("line " + lineNo + ": not a " + size + "x" + size + " puzzle, skipped");
+                    invalid++;
+                    continue;
+                }
+                block.add(grid);
+                if (block.size() < BLOCK) continue;
+            }
+            BatchSolver.Result[] results = single == null ? batch.solveAll(block) : null;
+            for (int k = 0; k < block.size(); k++) {
+                int[][] solution = single == null ? results[k].solution : single.solve(block.get(k));
+                if (solution == null) {
+                    out.write('-');
+                    unsolved++;
+                } else {
+                    out.write(PuzzleFormat.format(solution));
+                }
+                out.write('\n');
+            }
+            count += block.size();
+            block.clear();
+            if (line == null) break;
+        }
+        out.flush();
+        report("solved", count, start);
+        if (unsolved > 0 || invalid > 0) {
+            System.err.println(unsolved + " without solution, " + invalid + " invalid lines");
+        }
+    }
+
+    static void bench(Path corpus, Supplier<? extends Solver> engine) throws IOException {
+        try (PuzzleCorpus in = new PuzzleCorpus(corpus)) {
+            BatchSolver.Summary s = new BatchSolver(engine).solveAll(in);
+            System.err.printf("solved %d puzzles in %.3f s (%.0f puzzles/s), %d without solution%n",
+                    s.puzzles, s.nanos / 1e9, s.puzzlesPerSecond(), s.unsolved);
+            System.err.printf("nodes %d, backtracks %d, candidate checks %d%n", s.nodes, s.backtracks, s.candidateChecks);
+        }
+    }
+
+    static void generate(SudokuGenerator generator, int count, int holes, Writer out, PuzzleStore store)
+            throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int[][] full = generator.generateFull();
+            int[][] puzzle = generator.digUnique(full, holes);
+            out.write(PuzzleFormat.format(puzzle));
+            out.write('\n');
+            if (store != null) store.append(holes, new Puzzle(puzzle, full, null));
+        }
+        out.flush();
+        report("generated", count, start);
+    }
+
+    static void generate(GeneralGenerator generator, int count, int holes, Writer out) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            out.write(PuzzleFormat.format(generator.digUnique(generator.generateFull(), holes)));
+            out.write('\n');
+        }
+        out.flush();
+        report("generated", count, start);
+    }
+
+    private static void report(String what, long count, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%s %d puzzles in %.3f s (%.0f puzzles/s)%n", what, count, seconds,
+                seconds > 0 ? count / seconds : 0.0);
+    }
+
+    private static BufferedReader openInput(String input) throws IOException {
+        if (input.equals("-")) {
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII), IO_BUFFER);
+        }
+        return Files.newBufferedReader(Path.of(input), StandardCharsets.US_ASCII);
+    }
+
+    private static Writer openOutput(String output) throws IOException {
+        if (output == null) {
+            return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out),
+                    StandardCharsets.US_ASCII), IO_BUFFER);
+        }
+        return Files.newBufferedWriter(Path.of(output), StandardCharsets.US_ASCII);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) usage();
+        return args[i];
+    }
+
+    private static void usage() {
+        System.err.println("usage: SudokuCli solve [--engine bitmask|dlx|backtracking] [--box n] [--parallel] [input|-] [-o output]");
+        System.err.println("       SudokuCli generate <count> [--box n] [--holes n] [--seed s] [--store file] [-o output]");
+        System.err.println("       (--box 2-5 selects the board size, default 3 = 9x9; --engine, --store and --parallel are 9x9 only)");
+        System.err.println("       SudokuCli bench [--engine bitmask|dlx|backtracking] <corpus>");
+        System.exit(2);
+    }
+}
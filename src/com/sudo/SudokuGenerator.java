@@ -1,37 +1,245 @@
 package com.sudo;
 
+/**
+ * Generates full grids and puzzles. All randomness comes from one {@link java.util.SplittableRandom}
+ * per generator, so a generator created with (or reset to) a seed produces the same sequence of
+ * grids and puzzles every time. Instances keep scratch state and are not thread-safe.
+ */
 public class SudokuGenerator {
 
+    // Extra removal orders tried by digUnique when a pass ends with fewer holes than asked
+    private static final int UNIQUE_PASSES = 32;
+
+    // One unseeded generator per worker thread for parallel rated generation; never reseeded
+    private static final ThreadLocal<SudokuGenerator> WORKERS = ThreadLocal.withInitial(SudokuGenerator::new);
+
+    private final BitmaskSolver counter = new BitmaskSolver();
+    private DifficultyGrader grader;
+    // single RNG reused for every draw
+    private java.util.SplittableRandom rnd;
+
+    // scratch state of fillFull / fillPermuted
+    private final int[] cells = new int[81];
+    private final int[] rowUsed = new int[9];
+    private final int[] colUsed = new int[9];
+    private final int[] boxUsed = new int[9];
+    private final int[] seedGrid = new int[81];
+    private boolean hasSeed;
+    private final int[] digitMap = new int[9];
+    private final int[] rowMap = new int[9];
+    private final int[] colMap = new int[9];
+
+    /** Generator with an unpredictable seed. */
+    public SudokuGenerator() {
+        rnd = new java.util.SplittableRandom();
+    }
+
+    /** Generator whose output is fully determined by the seed. */
+    public SudokuGenerator(long seed) {
+        setSeed(seed);
+    }
+
+    /** Restarts the generator's random sequence from the seed, as if it had just been created with it. */
+    public void setSeed(long seed) {
+        rnd = new java.util.SplittableRandom(seed);
+        hasSeed = false;
+    }
+
+    /**
+     * Reproducible unique puzzle: the same seed and removeCount always give the same full grid and
+     * the same givens (see {@link #digUnique(int[][], int)}). Resets this generator to the seed.
+     */
+    public Puzzle generate(long seed, int removeCount) {
+        setSeed(seed);
+        int[][] full = generateFull();
+        return new Puzzle(digUnique(full, removeCount), full, null, seed);
+    }
+
     public int[][] generateFull() {
-        int[][] grid = new int[9][9];
-        fill(0, 0, grid);
-        return grid;
+        fillFull(cells);
+        return toGrid(cells);
+    }
+
+    /** Full grid via fillPermuted: much faster, but only reaches grids equivalent to one seed grid. */
+    public int[][] generateFullPermuted() {
+        fillPermuted(cells);
+        return toGrid(cells);
+    }
+
+    /**
+     * Writes a random full grid into out (81 cells, row-major) without allocating: randomized
+     * backtracking over row/column/box bit masks, picking a random remaining candidate at each cell.
+     */
+    public void fillFull(int[] out) {
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        fill(0, out);
+    }
+
+    /**
+     * Writes a random full grid into out by applying validity-preserving transformations to a
+     * seed grid: digit relabelling, row swaps within bands, band swaps, the same for columns and
+     * stacks, and an optional transpose. This costs a few dozen random draws per grid (millions
+     * of grids per second), but every result is equivalent to the seed, which is generated once
+     * per generator with fillFull.
+     */
+    public void fillPermuted(int[] out) {
+        if (!hasSeed) {
+            fillFull(seedGrid);
+            hasSeed = true;
+        }
+        for (int i = 0; i < 9; i++) digitMap[i] = i + 1;
+        shuffle(digitMap, 0, 9);
+        lineMap(rowMap);
+        lineMap(colMap);
+        boolean transpose = rnd.nextBoolean();
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int src = transpose ? colMap[c] * 9 + rowMap[r] : rowMap[r] * 9 + colMap[c];
+                out[r * 9 + c] = digitMap[seedGrid[src] - 1];
+            }
+        }
+    }
+
+    // Copy of a full grid with removeCount random cells emptied; the solution is usually not
+    // unique, so this is only a cheap workload, never a puzzle for players (see digUnique)
+    public int[][] dig(int[][] full, int removeCount) {
+        int[][] puzzle = new int[9][9];
+        for (int i = 0; i < 9; i++) System.arraycopy(full[i], 0, puzzle[i], 0, 9);
+
+        int removed = 0;
+        while (removed < removeCount) {
+            int r = rnd.nextInt(9);
+            int c = rnd.nextInt(9);
+            if (puzzle[r][c] != 0) {
+                puzzle[r][c] = 0;
+                removed++;
+            }
+        }
+        return puzzle;
     }
 
-    private boolean fill(int r, int c, int[][] grid) {
-        if (r == 9) return true;
-        int nr = (c == 8) ? r + 1 : r;
-        int nc = (c == 8) ? 0 : c + 1;
+    /**
+     * Copy of a full grid with up to removeCount cells emptied while keeping the solution unique.
+     * Clues are removed one at a time in random order and put back whenever the puzzle would get a
+     * second solution (checked with a solution count that stops at 2). Puzzles with very few clues
+     * are rare, so if a pass ends short of removeCount further orders are tried and the puzzle with
+     * the most holes is returned; it may have fewer than removeCount holes.
+     */
+    public int[][] digUnique(int[][] full, int removeCount) {
+        return digUnique(full, removeCount, UNIQUE_PASSES);
+    }
 
-        java.util.List<Integer> vals = new java.util.ArrayList<>();
-        for (int i = 1; i <= 9; i++) vals.add(i);
-        java.util.Collections.shuffle(vals);
+    private int[][] digUnique(int[][] full, int removeCount, int extraPasses) {
+        int[] order = new int[81];
+        for (int i = 0; i < 81; i++) order[i] = i;
 
-        for (int v : vals) {
-            if (valid(grid, r, c, v)) {
-                grid[r][c] = v;
-                if (fill(nr, nc, grid)) return true;
-                grid[r][c] = 0;
+        Board solution = Board.of(full);
+        Board best = null;
+        int bestHoles = -1;
+        for (int pass = 0; pass <= extraPasses && bestHoles < removeCount; pass++) {
+            shuffle(order, 0, 81);
+            Board puzzle = solution.copy();
+            int holes = 0;
+            for (int k = 0; k < 81 && holes < removeCount; k++) {
+                int i = order[k], v = puzzle.get(i);
+                puzzle.set(i, 0);
+                if (counter.countSolutions(puzzle, 2) == 1) holes++;
+                else puzzle.set(i, v);
+            }
+            if (holes > bestHoles) {
+                best = puzzle;
+                bestHoles = holes;
             }
         }
+        return best.toGrid();
+    }
+
+    /**
+     * Unique puzzle whose rating (hardest technique needed, see {@link DifficultyGrader}) is
+     * exactly {@code target}, or null if none was found in maxAttempts candidates. Candidates are
+     * generated and graded in parallel on all cores; the first match wins.
+     */
+    public static Puzzle generateRated(Technique target, int maxAttempts) {
+        return java.util.stream.IntStream.range(0, maxAttempts).parallel()
+                .mapToObj(i -> WORKERS.get().tryRated(target))
+                .filter(java.util.Objects::nonNull)
+                .findAny()
+                .orElse(null);
+    }
+
+    /**
+     * Reproducible variant of {@link #generateRated(Technique, int)}: attempt i runs on its own
+     * generator created with the i-th seed split from {@code seed}, and the match with the lowest
+     * attempt number is returned, so the result does not depend on the number of cores or on
+     * scheduling. The shared unseeded workers are left untouched.
+     */
+    public static Puzzle generateRated(Technique target, int maxAttempts, long seed) {
+        long[] seeds = new java.util.SplittableRandom(seed).longs(maxAttempts).toArray();
+        return java.util.stream.IntStream.range(0, maxAttempts).parallel()
+                .mapToObj(i -> new SudokuGenerator(seeds[i]).tryRated(target))
+                .filter(java.util.Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Puzzle tryRated(Technique target) {
+        if (grader == null) grader = new DifficultyGrader();
+        int[][] full = generateFull();
+        // easy ratings need plenty of clues left, harder ones are dug as far as one pass allows
+        int holes = target == Technique.NAKED_SINGLE ? 40 : target == Technique.HIDDEN_SINGLE ? 50 : 81;
+        int[][] puzzle = digUnique(full, holes, 0);
+        return grader.grade(puzzle) == target ? new Puzzle(puzzle, full, target) : null;
+    }
+
+    private boolean fill(int i, int[] out) {
+        if (i == 81) return true;
+        int r = Board.ROW[i], c = Board.COL[i], b = Board.BOX[i];
+        int cand = ~(rowUsed[r] | colUsed[c] | boxUsed[b]) & 0x1FF;
+        while (cand != 0) {
+            // pick one of the remaining candidates uniformly
+            int k = rnd.nextInt(Integer.bitCount(cand));
+            int bit = cand;
+            for (; k > 0; k--) bit &= bit - 1;
+            bit &= -bit;
+            cand &= ~bit;
+
+            rowUsed[r] |= bit;
+            colUsed[c] |= bit;
+            boxUsed[b] |= bit;
+            out[i] = Integer.numberOfTrailingZeros(bit) + 1;
+            if (fill(i + 1, out)) return true;
+            rowUsed[r] &= ~bit;
+            colUsed[c] &= ~bit;
+            boxUsed[b] &= ~bit;
+        }
+        out[i] = 0;
         return false;
     }
 
-    private boolean valid(int[][] grid, int r, int c, int val) {
-        for (int j = 0; j < 9; j++) if (grid[r][j] == val) return false;
-        for (int i = 0; i < 9; i++) if (grid[i][c] == val) return false;
-        int br = (r / 3) * 3, bc = (c / 3) * 3;
-        for (int i = br; i < br + 3; i++) for (int j = bc; j < bc + 3; j++) if (grid[i][j] == val) return false;
-        return true;
+    // Random row (or column) order that keeps lines inside their band: bands and lines within each band shuffled
+    private void lineMap(int[] map) {
+        int[] bands = {0, 1, 2};
+        shuffle(bands, 0, 3);
+        for (int b = 0; b < 3; b++) {
+            for (int k = 0; k < 3; k++) map[b * 3 + k] = bands[b] * 3 + k;
+            shuffle(map, b * 3, 3);
+        }
+    }
+
+    private void shuffle(int[] a, int from, int len) {
+        for (int i = len - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int t = a[from + i];
+            a[from + i] = a[from + j];
+            a[from + j] = t;
+        }
+    }
+
+    private static int[][] toGrid(int[] cells) {
+        int[][] grid = new int[9][9];
+        for (int i = 0; i < 81; i++) grid[i / 9][i % 9] = cells[i];
+        return grid;
     }
 }
@@ -1,49 +1,184 @@
 package com.sudo;
 
-public class SudokuSolver {
+public class SudokuSolver implements Solver {
 
-    // Simple backtracking solver that records steps (PUT and CLEAR for backtracking)
-    public java.util.List<Step> generateSteps(int[][] grid) {
-        java.util.List<Step> steps = new java.util.ArrayList<>();
-        int[][] a = new int[9][9];
-        for (int i = 0; i < 9; i++) System.arraycopy(grid[i], 0, a[i], 0, 9);
+    private final Engine engine;
+    // engine that does the work when it is not the built-in backtracking one
+    private final Solver delegate;
+    private Heuristic heuristic = Heuristic.ROW_MAJOR;
+    private long checks;
+    private java.util.function.BooleanSupplier stop;
+    private boolean stopped;
+    // scratch masks of findEmpty, rebuilt at every search node
+    private final int[] rowUsed = new int[9];
+    private final int[] colUsed = new int[9];
+    private final int[] boxUsed = new int[9];
 
-        if (!solveWithSteps(a, steps)) {
-            return null;
+    public SudokuSolver() {
+        this(Engine.BACKTRACKING);
+    }
+
+    public SudokuSolver(Engine engine) {
+        this.engine = engine;
+        switch (engine) {
+            case BITMASK:
+                delegate = new BitmaskSolver();
+                break;
+            case DLX:
+                delegate = new DlxSolver();
+                break;
+            default:
+                delegate = null;
         }
-        return steps;
     }
 
-    private boolean solveWithSteps(int[][] grid, java.util.List<Step> steps) {
-        int[] rc = findEmpty(grid);
-        if (rc == null) return true;
-        int r = rc[0], c = rc[1];
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public Heuristic getHeuristic() {
+        return heuristic;
+    }
+
+    // Branching heuristic of the backtracking engine (BITMASK and DLX always branch on the most constrained choice)
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    // Reports steps (PUT and CLEAR for backtracking) from the configured engine
+    @Override
+    public int[][] solve(int[][] grid, StepSink sink) {
+        if (delegate != null) return delegate.solve(grid, sink);
+        checks = 0;
+        stopped = false;
+        Board board = Board.of(grid);
+        if (!givensValid(board)) return null;
+        return solveWithSteps(board, sink) && !stopped ? board.toGrid() : null;
+    }
+
+    @Override
+    public int countSolutions(int[][] grid, int limit) {
+        if (delegate != null) return delegate.countSolutions(grid, limit);
+        checks = 0;
+        stopped = false;
+        Board board = Board.of(grid);
+        return givensValid(board) ? count(board, limit) : 0;
+    }
+
+    @Override
+    public long getCandidateChecks() {
+        return delegate != null ? delegate.getCandidateChecks() : checks;
+    }
+
+    @Override
+    public void setStopCondition(java.util.function.BooleanSupplier stop) {
+        this.stop = stop;
+        if (delegate != null) delegate.setStopCondition(stop);
+    }
+
+    // False if a given is out of range or repeats a peer's digit; the search would otherwise try
+    // every filling of the empty cells before giving up
+    private static boolean givensValid(Board board) {
+        for (int i = 0; i < Board.CELLS; i++) {
+            int v = board.get(i);
+            if (v < 0 || v > 9) return false;
+            if (v != 0 && !board.canPlace(i, v)) return false;
+        }
+        return true;
+    }
+
+    // True once solved or stopped; solve() tells the two apart by the stopped flag
+    private boolean solveWithSteps(Board board, StepSink sink) {
+        int cell = findEmpty(board);
+        if (cell < 0) return true;
+        if (stopRequested()) return true;
+        int r = Board.ROW[cell], c = Board.COL[cell];
         for (int v = 1; v <= 9; v++) {
-            if (valid(grid, r, c, v)) {
-                grid[r][c] = v;
-                steps.add(new Step(StepType.PUT, r, c, v));
-                if (solveWithSteps(grid, steps)) return true;
+            if (valid(board, cell, v)) {
+                board.set(cell, v);
+                if (sink != null) sink.accept(StepTrace.put(r, c, v));
+                if (solveWithSteps(board, sink)) return true;
                 // backtrack
-                grid[r][c] = 0;
-                steps.add(new Step(StepType.CLEAR, r, c, 0));
+                board.set(cell, 0);
+                if (sink != null) sink.accept(StepTrace.clear(r, c));
             }
         }
         return false;
     }
 
-    private int[] findEmpty(int[][] grid) {
-        for (int i = 0; i < 9; i++) for (int j = 0; j < 9; j++) if (grid[i][j] == 0) return new int[]{i, j};
-        return null;
+    private int count(Board board, int limit) {
+        int cell = findEmpty(board);
+        if (cell < 0) return 1;
+        if (stopRequested()) return 0;
+        int n = 0;
+        for (int v = 1; v <= 9 && n < limit && !stopped; v++) {
+            if (valid(board, cell, v)) {
+                board.set(cell, v);
+                n += count(board, limit - n);
+                board.set(cell, 0);
+            }
+        }
+        return n;
+    }
+
+    private boolean stopRequested() {
+        if (!stopped && stop != null && stop.getAsBoolean()) stopped = true;
+        return stopped;
     }
 
-    private boolean valid(int[][] grid, int r, int c, int val) {
-        for (int j = 0; j < 9; j++) if (grid[r][j] == val) return false;
-        for (int i = 0; i < 9; i++) if (grid[i][c] == val) return false;
-        int br = (r / 3) * 3, bc = (c / 3) * 3;
-        for (int i = br; i < br + 3; i++) for (int j = bc; j < bc + 3; j++) if (grid[i][j] == val) return false;
-        return true;
+    // Picks the next cell to branch on as r * 9 + c, or -1 when the board is full
+    private int findEmpty(Board board) {
+        if (heuristic == Heuristic.ROW_MAJOR) {
+            for (int i = 0; i < Board.CELLS; i++) if (board.get(i) == 0) return i;
+            return -1;
+        }
+        java.util.Arrays.fill(rowUsed, 0);
+        java.util.Arrays.fill(colUsed, 0);
+        java.util.Arrays.fill(boxUsed, 0);
+        for (int i = 0; i < Board.CELLS; i++) {
+            int v = board.get(i);
+            if (v == 0) continue;
+            int bit = 1 << v;
+            rowUsed[Board.ROW[i]] |= bit;
+            colUsed[Board.COL[i]] |= bit;
+            boxUsed[Board.BOX[i]] |= bit;
+        }
+        int best = -1, bestCount = 10, bestDegree = -1;
+        for (int i = 0; i < Board.CELLS; i++) {
+            if (board.get(i) != 0) continue;
+            int used = rowUsed[Board.ROW[i]] | colUsed[Board.COL[i]] | boxUsed[Board.BOX[i]];
+            int count = 9 - Integer.bitCount(used);
+            if (count == 0) return i; // dead end, fail here without trying anything
+            if (count > bestCount) continue;
+            int degree = heuristic == Heuristic.MRV_DEGREE ? board.emptyPeers(i) : 0;
+            if (count < bestCount || degree > bestDegree) {
+                best = i;
+                bestCount = count;
+                bestDegree = degree;
+            }
+        }
+        return best;
     }
 
+    private boolean valid(Board board, int cell, int val) {
+        checks++;
+        return board.canPlace(cell, val);
+    }
+
+    /**
+     * BACKTRACKING: plain recursion over empty cells, in the order picked by the {@link Heuristic}.
+     * BITMASK: candidate masks with naked/hidden single propagation, see {@link BitmaskSolver}.
+     * DLX: Dancing Links exact cover, see {@link DlxSolver}.
+     */
+    public enum Engine {BACKTRACKING, BITMASK, DLX}
+
+    /**
+     * ROW_MAJOR: first empty cell, scanning rows top to bottom.
+     * MRV: empty cell with the fewest legal values.
+     * MRV_DEGREE: MRV, ties broken by the most empty peers.
+     */
+    public enum Heuristic {ROW_MAJOR, MRV, MRV_DEGREE}
+
     public enum StepType {PUT, CLEAR}
 
     public static class Step {
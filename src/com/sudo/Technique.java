@@ -0,0 +1,25 @@
+package com.sudo;
+
+/**
+ * Human solving techniques, easiest first. The rating of a puzzle is the hardest technique
+ * needed when the easiest applicable one is always used; GUESS means logic alone gets stuck.
+ */
+public enum Technique {
+    NAKED_SINGLE("Naked single"),
+    HIDDEN_SINGLE("Hidden single"),
+    NAKED_PAIR("Naked pair"),
+    POINTING("Pointing / claiming"),
+    HIDDEN_PAIR("Hidden pair"),
+    X_WING("X-Wing"),
+    GUESS("Trial and error");
+
+    private final String label;
+
+    Technique(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}